@@ -42,7 +42,8 @@ CREATE TABLE users (
     updated_at    TIMESTAMP     NOT NULL DEFAULT CURRENT_TIMESTAMP ON UPDATE CURRENT_TIMESTAMP,
     PRIMARY KEY (user_id),
     UNIQUE KEY uq_users_email (email),
-    INDEX idx_users_role (role)
+    INDEX idx_users_role (role),
+    INDEX idx_users_name (last_name, first_name)
 ) ENGINE=InnoDB;
 
 -- =============================================================
@@ -80,6 +81,7 @@ CREATE TABLE products (
     stock         INT             NOT NULL DEFAULT 0,
     sku           VARCHAR(80)     NOT NULL,
     is_active     BOOLEAN         NOT NULL DEFAULT TRUE,
+    version       INT             NOT NULL DEFAULT 0,
     created_at    TIMESTAMP       NOT NULL DEFAULT CURRENT_TIMESTAMP,
     updated_at    TIMESTAMP       NOT NULL DEFAULT CURRENT_TIMESTAMP ON UPDATE CURRENT_TIMESTAMP,
     PRIMARY KEY (product_id),
@@ -89,8 +91,10 @@ CREATE TABLE products (
         ON DELETE RESTRICT ON UPDATE CASCADE,
     CONSTRAINT chk_products_price   CHECK (price >= 0),
     CONSTRAINT chk_products_stock   CHECK (stock >= 0),
-    INDEX idx_products_category (category_id),
-    INDEX idx_products_active (is_active)
+    INDEX idx_products_category_active_name (category_id, is_active, name),
+    INDEX idx_products_active (is_active),
+    INDEX idx_products_name (name),
+    FULLTEXT INDEX ft_products_name_description (name, description)
 ) ENGINE=InnoDB;
 
 -- =============================================================
@@ -109,6 +113,7 @@ CREATE TABLE orders (
     shipped_date         TIMESTAMP,
     delivered_date       TIMESTAMP,
     notes                TEXT,
+    version              INT             NOT NULL DEFAULT 0,
     created_at           TIMESTAMP       NOT NULL DEFAULT CURRENT_TIMESTAMP,
     updated_at           TIMESTAMP       NOT NULL DEFAULT CURRENT_TIMESTAMP ON UPDATE CURRENT_TIMESTAMP,
     PRIMARY KEY (order_id),
@@ -123,8 +128,9 @@ CREATE TABLE orders (
         REFERENCES addresses (address_id)
         ON DELETE SET NULL ON UPDATE CASCADE,
     CONSTRAINT chk_orders_total   CHECK (total_amount >= 0),
-    INDEX idx_orders_user   (user_id),
-    INDEX idx_orders_status (status)
+    INDEX idx_orders_user_date (user_id, order_date),
+    INDEX idx_orders_status    (status),
+    INDEX idx_orders_date      (order_date)
 ) ENGINE=InnoDB;
 
 -- =============================================================
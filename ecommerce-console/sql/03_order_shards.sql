@@ -0,0 +1,93 @@
+-- =============================================================
+-- Order shards
+-- CSCE 548 - Project 4
+-- MySQL 8.0+
+--
+-- Optional: orders and order_items split by user_id across N
+-- MySQL nodes. Two local schemas stand in for the nodes here;
+-- point DB_ORDER_SHARDS at them to enable sharding:
+--
+--   DB_ORDER_SHARDS=ecommerce_orders_0,ecommerce_orders_1
+--
+-- The order of the list is the shard number and must never
+-- change once orders exist. Users, addresses and products stay
+-- in ecommerce_db, so the foreign keys to them cannot be
+-- enforced across nodes and are left out; order_items still
+-- references orders, which always live on the same shard.
+-- =============================================================
+
+DROP DATABASE IF EXISTS ecommerce_orders_0;
+CREATE DATABASE ecommerce_orders_0
+    CHARACTER SET utf8mb4
+    COLLATE utf8mb4_unicode_ci;
+
+DROP DATABASE IF EXISTS ecommerce_orders_1;
+CREATE DATABASE ecommerce_orders_1
+    CHARACTER SET utf8mb4
+    COLLATE utf8mb4_unicode_ci;
+
+-- =============================================================
+-- SHARD 0
+-- =============================================================
+USE ecommerce_orders_0;
+
+CREATE TABLE orders (
+    order_id             INT             NOT NULL AUTO_INCREMENT,
+    user_id              INT             NOT NULL,
+    order_number         VARCHAR(50)     NOT NULL,
+    status               ENUM('PENDING','PAID','SHIPPED','DELIVERED','CANCELLED')
+                                         NOT NULL DEFAULT 'PENDING',
+    total_amount         DECIMAL(12,2)   NOT NULL DEFAULT 0.00,
+    shipping_address_id  INT,
+    billing_address_id   INT,
+    order_date           TIMESTAMP       NOT NULL DEFAULT CURRENT_TIMESTAMP,
+    shipped_date         TIMESTAMP,
+    delivered_date       TIMESTAMP,
+    notes                TEXT,
+    version              INT             NOT NULL DEFAULT 0,
+    created_at           TIMESTAMP       NOT NULL DEFAULT CURRENT_TIMESTAMP,
+    updated_at           TIMESTAMP       NOT NULL DEFAULT CURRENT_TIMESTAMP ON UPDATE CURRENT_TIMESTAMP,
+    PRIMARY KEY (order_id),
+    UNIQUE KEY uq_orders_number (order_number),
+    CONSTRAINT chk_orders_total   CHECK (total_amount >= 0),
+    INDEX idx_orders_user_date (user_id, order_date),
+    INDEX idx_orders_status    (status),
+    INDEX idx_orders_date      (order_date)
+) ENGINE=InnoDB;
+
+CREATE TABLE order_items (
+    order_item_id INT             NOT NULL AUTO_INCREMENT,
+    order_id      INT             NOT NULL,
+    product_id    INT             NOT NULL,
+    quantity      INT             NOT NULL,
+    unit_price    DECIMAL(10,2)   NOT NULL,
+    subtotal      DECIMAL(12,2)   GENERATED ALWAYS AS (quantity * unit_price) STORED,
+    created_at    TIMESTAMP       NOT NULL DEFAULT CURRENT_TIMESTAMP,
+    PRIMARY KEY (order_item_id),
+    CONSTRAINT fk_order_items_order   FOREIGN KEY (order_id)
+        REFERENCES orders (order_id)
+        ON DELETE CASCADE ON UPDATE CASCADE,
+    CONSTRAINT chk_order_items_qty    CHECK (quantity > 0),
+    CONSTRAINT chk_order_items_price  CHECK (unit_price >= 0),
+    INDEX idx_order_items_order   (order_id),
+    INDEX idx_order_items_product (product_id)
+) ENGINE=InnoDB;
+
+-- =============================================================
+-- SHARD 1 (same tables)
+-- =============================================================
+USE ecommerce_orders_1;
+
+CREATE TABLE orders LIKE ecommerce_orders_0.orders;
+CREATE TABLE order_items LIKE ecommerce_orders_0.order_items;
+
+-- LIKE does not copy foreign keys
+ALTER TABLE order_items
+    ADD CONSTRAINT fk_order_items_order FOREIGN KEY (order_id)
+        REFERENCES orders (order_id)
+        ON DELETE CASCADE ON UPDATE CASCADE;
+
+-- =============================================================
+-- Summary: 2 shards x 2 tables; order ids returned by the
+-- application encode the shard (local_id * shard_count + shard)
+-- =============================================================
@@ -8,15 +8,16 @@ public class Main {
         System.out.println("Starting E-Commerce Console Application...");
         System.out.println();
 
-        // Test database connection
+        // Open and warm up the connection pool, then test the connection
         System.out.print("Testing database connection... ");
-        if (DatabaseConnection.testConnection()) {
+        if (startDatabase() && DatabaseConnection.testConnection()) {
             System.out.println("✓ Connected successfully!");
             System.out.println();
 
             // Start the console UI
             ConsoleUI ui = new ConsoleUI();
             ui.start();
+            DatabaseConnection.shutdown();
         } else {
             System.err.println("✗ Failed to connect to database!");
             System.err.println();
@@ -28,4 +29,14 @@ public class Main {
             System.exit(1);
         }
     }
+
+    private static boolean startDatabase() {
+        try {
+            DatabaseConnection.start();
+            return true;
+        } catch (RuntimeException e) {
+            System.err.println(e.getMessage());
+            return false;
+        }
+    }
 }
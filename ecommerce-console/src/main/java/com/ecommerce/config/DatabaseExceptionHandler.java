@@ -0,0 +1,32 @@
+package com.ecommerce.config;
+
+import com.ecommerce.dao.OptimisticLockException;
+import com.ecommerce.db.DatabaseUnavailableException;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.ExceptionHandler;
+import org.springframework.web.bind.annotation.RestControllerAdvice;
+
+/**
+ * Maps database exceptions that are not plain SQLExceptions for every
+ * controller: an open circuit breaker becomes HTTP 503, with Retry-After
+ * telling clients when the breaker will let a probe through, and a stale
+ * row version becomes HTTP 409.
+ */
+@RestControllerAdvice
+public class DatabaseExceptionHandler {
+
+    @ExceptionHandler(DatabaseUnavailableException.class)
+    public ResponseEntity<?> handleDatabaseUnavailable(DatabaseUnavailableException e) {
+        return ResponseEntity.status(HttpStatus.SERVICE_UNAVAILABLE)
+                .header(HttpHeaders.RETRY_AFTER, String.valueOf(Math.max(1, e.getRetryAfterSeconds())))
+                .body("Database unavailable: " + e.getMessage());
+    }
+
+    @ExceptionHandler(OptimisticLockException.class)
+    public ResponseEntity<?> handleOptimisticLock(OptimisticLockException e) {
+        return ResponseEntity.status(HttpStatus.CONFLICT)
+                .body("Conflict: " + e.getMessage());
+    }
+}
@@ -0,0 +1,40 @@
+package com.ecommerce.config;
+
+import com.ecommerce.db.DatabaseConnection;
+import org.springframework.context.SmartLifecycle;
+import org.springframework.stereotype.Component;
+
+/**
+ * Managed lifecycle for the database layer.
+ * Loads the database configuration and warms the connection pools while the
+ * application context starts, before the embedded web server (which starts in
+ * a later phase) accepts requests. If the database is unreachable the
+ * application fails to start instead of failing its first request. The pools
+ * are closed after the web server has stopped.
+ */
+@Component
+public class DatabaseLifecycle implements SmartLifecycle {
+    private volatile boolean running;
+
+    @Override
+    public void start() {
+        DatabaseConnection.start();
+        running = true;
+    }
+
+    @Override
+    public void stop() {
+        DatabaseConnection.shutdown();
+        running = false;
+    }
+
+    @Override
+    public boolean isRunning() {
+        return running;
+    }
+
+    @Override
+    public int getPhase() {
+        return 0;
+    }
+}
@@ -0,0 +1,32 @@
+package com.ecommerce.config;
+
+import com.ecommerce.db.DatabaseConnection;
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import org.springframework.stereotype.Component;
+import org.springframework.web.filter.OncePerRequestFilter;
+
+import java.io.IOException;
+
+/**
+ * Request filter: scopes read/write routing to one HTTP request.
+ * A write made while handling a request sends the rest of that request's
+ * reads to the primary database, and the pin is dropped when the request
+ * ends so the pooled Tomcat thread starts clean for the next one.
+ */
+@Component
+public class ReadYourWritesFilter extends OncePerRequestFilter {
+
+    @Override
+    protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response, FilterChain chain)
+            throws ServletException, IOException {
+        DatabaseConnection.beginRequest();
+        try {
+            chain.doFilter(request, response);
+        } finally {
+            DatabaseConnection.endRequest();
+        }
+    }
+}
@@ -0,0 +1,112 @@
+package com.ecommerce.controller;
+
+import com.ecommerce.db.DatabaseConnection;
+import com.ecommerce.model.Product;
+import com.ecommerce.model.UpsertBatchResult;
+import com.ecommerce.service.ProductService;
+import com.fasterxml.jackson.core.JsonParser;
+import com.fasterxml.jackson.core.JsonToken;
+import com.fasterxml.jackson.databind.DeserializationFeature;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.sql.SQLException;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * REST API Controller: CatalogAdminController
+ * This controller exposes bulk catalog maintenance for supplier feeds.
+ * All endpoints invoke the Business Layer (ProductService).
+ */
+@RestController
+@RequestMapping("/api/admin/catalog")
+@CrossOrigin(origins = "*")
+public class CatalogAdminController {
+    private final ProductService productService;
+    private final ObjectMapper objectMapper;
+
+    public CatalogAdminController() {
+        this.productService = new ProductService();
+        this.objectMapper = new ObjectMapper()
+                .configure(DeserializationFeature.FAIL_ON_UNKNOWN_PROPERTIES, false);
+    }
+
+    /**
+     * POST /api/admin/catalog/products - Insert or update products by SKU
+     *
+     * The body is a JSON array of products. It is read as a stream and
+     * written one batch at a time, so the whole feed is never held in memory.
+     * Batches commit as they go; on an error the response says how many
+     * committed before it.
+     *
+     * @param body JSON array of products
+     * @return Inserted and updated totals plus per-batch counts
+     */
+    @PostMapping(value = "/products", consumes = MediaType.APPLICATION_JSON_VALUE)
+    public ResponseEntity<?> upsertProducts(InputStream body) {
+        List<UpsertBatchResult> batches = new ArrayList<>();
+        try (JsonParser parser = objectMapper.getFactory().createParser(body)) {
+            if (parser.nextToken() != JsonToken.START_ARRAY) {
+                throw new IllegalArgumentException("Expected a JSON array of products");
+            }
+
+            int batchSize = DatabaseConnection.getBatchSize();
+            List<Product> batch = new ArrayList<>(batchSize);
+            while (parser.nextToken() == JsonToken.START_OBJECT) {
+                batch.add(objectMapper.readValue(parser, Product.class));
+                if (batch.size() == batchSize) {
+                    upsertBatch(batch, batches);
+                }
+            }
+            if (parser.currentToken() != JsonToken.END_ARRAY) {
+                throw new IllegalArgumentException("Expected a JSON array of products");
+            }
+            upsertBatch(batch, batches);
+
+            return ResponseEntity.ok(describe(batches));
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.badRequest().body(failure(e.getMessage(), batches));
+        } catch (IOException e) {
+            return ResponseEntity.badRequest().body(failure("Invalid JSON: " + e.getMessage(), batches));
+        } catch (SQLException e) {
+            return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR)
+                    .body(failure("Database error: " + e.getMessage(), batches));
+        }
+    }
+
+    /**
+     * Upsert the rows collected so far, then empty the list
+     */
+    private void upsertBatch(List<Product> batch, List<UpsertBatchResult> batches) throws SQLException {
+        if (batch.isEmpty()) {
+            return;
+        }
+        for (UpsertBatchResult result : productService.upsertProducts(batch)) {
+            result.setBatch(batches.size() + 1);
+            batches.add(result);
+        }
+        batch.clear();
+    }
+
+    private Map<String, Object> describe(List<UpsertBatchResult> batches) {
+        Map<String, Object> result = new LinkedHashMap<>();
+        result.put("inserted", batches.stream().mapToInt(UpsertBatchResult::getInserted).sum());
+        result.put("updated", batches.stream().mapToInt(UpsertBatchResult::getUpdated).sum());
+        result.put("batches", batches);
+        return result;
+    }
+
+    private Map<String, Object> failure(String error, List<UpsertBatchResult> committed) {
+        Map<String, Object> result = describe(committed);
+        result.put("error", error);
+        return result;
+    }
+}
@@ -1,6 +1,7 @@
 package com.ecommerce.controller;
 
 import com.ecommerce.model.Category;
+import com.ecommerce.model.Page;
 import com.ecommerce.service.CategoryService;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
@@ -66,14 +67,24 @@ public class CategoryController {
 
     /**
      * GET /api/categories - Get all categories
+     * GET /api/categories?limit=50&after={cursor} - Get one page of categories
      * 
-     * @return List of all categories
+     * @param after Cursor from the previous page's nextCursor
+     * @param limit Page size
+     * @return List of all categories, or a page when after or limit is given
      */
     @GetMapping
-    public ResponseEntity<?> getAllCategories() {
+    public ResponseEntity<?> getAllCategories(@RequestParam(required = false) String after,
+            @RequestParam(required = false) Integer limit) {
         try {
+            if (after != null || limit != null) {
+                Page<Category> page = categoryService.getCategoriesPage(after, limit);
+                return ResponseEntity.ok(page);
+            }
             List<Category> categories = categoryService.getAllCategories();
             return ResponseEntity.ok(categories);
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.badRequest().body(e.getMessage());
         } catch (SQLException e) {
             return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR)
                     .body("Database error: " + e.getMessage());
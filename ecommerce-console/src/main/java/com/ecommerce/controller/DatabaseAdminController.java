@@ -0,0 +1,91 @@
+package com.ecommerce.controller;
+
+import com.ecommerce.db.BorrowRecord;
+import com.ecommerce.db.ConnectionPool;
+import com.ecommerce.db.DatabaseConnection;
+import com.ecommerce.db.HoldTimeHistogram;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * REST API Controller: DatabaseAdminController
+ * This controller exposes diagnostics for the database connection pools:
+ * pool sizes, connections currently borrowed (with their borrow stack traces)
+ * and connection hold-time histograms per calling method.
+ */
+@RestController
+@RequestMapping("/api/admin/db")
+@CrossOrigin(origins = "*")
+public class DatabaseAdminController {
+
+    /**
+     * GET /api/admin/db/pools - Pool statistics and borrowed connections
+     * 
+     * @return One entry per connection pool
+     */
+    @GetMapping("/pools")
+    public ResponseEntity<?> getPools() {
+        List<Map<String, Object>> pools = new ArrayList<>();
+        for (ConnectionPool pool : DatabaseConnection.getPools()) {
+            Map<String, Object> stats = new LinkedHashMap<>();
+            stats.put("name", pool.getName());
+            stats.put("total", pool.getTotalCount());
+            stats.put("idle", pool.getIdleCount());
+            stats.put("active", pool.getActiveCount());
+            stats.put("maxSize", pool.getConfig().getMaxSize());
+            stats.put("statementCacheHits", pool.getStatementCacheHits());
+            stats.put("statementCacheMisses", pool.getStatementCacheMisses());
+            stats.put("circuitBreaker", pool.getCircuitBreaker().getState().name());
+            stats.put("borrowed", describeBorrowed(pool.getBorrowedConnections()));
+            pools.add(stats);
+        }
+        return ResponseEntity.ok(pools);
+    }
+
+    /**
+     * GET /api/admin/db/hold-times - Connection hold-time histograms
+     * 
+     * @return Pool name to (calling method to histogram)
+     */
+    @GetMapping("/hold-times")
+    public ResponseEntity<?> getHoldTimes() {
+        Map<String, Object> result = new LinkedHashMap<>();
+        for (ConnectionPool pool : DatabaseConnection.getPools()) {
+            Map<String, Object> byCaller = new LinkedHashMap<>();
+            for (Map.Entry<String, HoldTimeHistogram> entry : pool.getHoldTimeHistograms().entrySet()) {
+                HoldTimeHistogram histogram = entry.getValue();
+                Map<String, Object> stats = new LinkedHashMap<>();
+                stats.put("count", histogram.getCount());
+                stats.put("meanMs", histogram.getMeanMs());
+                stats.put("maxMs", histogram.getMaxMs());
+                stats.put("buckets", histogram.getBuckets());
+                byCaller.put(entry.getKey(), stats);
+            }
+            result.put(pool.getName(), byCaller);
+        }
+        return ResponseEntity.ok(result);
+    }
+
+    private List<Map<String, Object>> describeBorrowed(List<BorrowRecord> records) {
+        List<Map<String, Object>> borrowed = new ArrayList<>();
+        for (BorrowRecord record : records) {
+            Map<String, Object> entry = new LinkedHashMap<>();
+            entry.put("caller", record.getCaller());
+            entry.put("flow", record.getFlow());
+            entry.put("thread", record.getThreadName());
+            entry.put("heldMs", record.getHeldMs());
+            StackTraceElement[] stack = record.getBorrowStackTrace();
+            if (stack != null) {
+                entry.put("stackTrace", Arrays.stream(stack).map(StackTraceElement::toString).toList());
+            }
+            borrowed.add(entry);
+        }
+        return borrowed;
+    }
+}
@@ -1,13 +1,21 @@
 package com.ecommerce.controller;
 
+import com.ecommerce.db.DbExecutor;
 import com.ecommerce.model.Order;
+import com.ecommerce.model.OrderStats;
+import com.ecommerce.model.Page;
+import com.ecommerce.model.StatusTransitionRequest;
+import com.ecommerce.model.StatusTransitionResult;
 import com.ecommerce.service.OrderService;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
 
 import java.sql.SQLException;
+import java.util.LinkedHashMap;
 import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
 
 /**
  * REST API Controller: OrderController
@@ -64,16 +72,51 @@ public class OrderController {
         }
     }
 
+    /**
+     * GET /api/orders/{id}/details - Get order with customer and line items
+     * 
+     * The lookup runs on the database executor, so the request thread is
+     * released while it waits.
+     * 
+     * @param id Order ID
+     * @return Order details or 404 if not found
+     */
+    @GetMapping("/{id}/details")
+    public CompletableFuture<ResponseEntity<?>> getOrderDetails(@PathVariable Integer id) {
+        return orderService.getOrderDetailsAsync(id).handle((details, failure) -> {
+            if (failure != null) {
+                SQLException e = DbExecutor.rethrow(failure);
+                return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR)
+                        .body("Database error: " + e.getMessage());
+            }
+            if (details != null) {
+                return ResponseEntity.ok(details);
+            } else {
+                return ResponseEntity.notFound().build();
+            }
+        });
+    }
+
     /**
      * GET /api/orders - Get all orders
+     * GET /api/orders?limit=50&after={cursor} - Get one page of orders
      * 
-     * @return List of all orders
+     * @param after Cursor from the previous page's nextCursor
+     * @param limit Page size
+     * @return List of all orders, or a page when after or limit is given
      */
     @GetMapping
-    public ResponseEntity<?> getAllOrders() {
+    public ResponseEntity<?> getAllOrders(@RequestParam(required = false) String after,
+            @RequestParam(required = false) Integer limit) {
         try {
+            if (after != null || limit != null) {
+                Page<Order> page = orderService.getOrdersPage(after, limit);
+                return ResponseEntity.ok(page);
+            }
             List<Order> orders = orderService.getAllOrders();
             return ResponseEntity.ok(orders);
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.badRequest().body(e.getMessage());
         } catch (SQLException e) {
             return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR)
                     .body("Database error: " + e.getMessage());
@@ -148,15 +191,18 @@ public class OrderController {
      * PUT /api/orders/{id}/status - Update order status
      * 
      * @param id         Order ID
-     * @param statusData Map containing new status
-     * @return Success message or error
+     * @param statusData Map containing new status and, optionally, the
+     *                   order version the client read
+     * @return Success message, or 409 if the order changed since that version
      */
     @PutMapping("/{id}/status")
     public ResponseEntity<?> updateOrderStatus(@PathVariable Integer id,
             @RequestBody java.util.Map<String, String> statusData) {
         try {
             String status = statusData.get("status");
-            boolean updated = orderService.updateOrderStatus(id, status);
+            String version = statusData.get("version");
+            boolean updated = orderService.updateOrderStatus(id, status,
+                    version != null ? Integer.valueOf(version) : null);
             if (updated) {
                 return ResponseEntity.ok("Order status updated successfully");
             } else {
@@ -171,6 +217,33 @@ public class OrderController {
         }
     }
 
+    /**
+     * POST /api/orders/status/bulk - Move many orders from one status to
+     * another
+     * 
+     * @param request Order IDs with the status they must be in and the new
+     *                status
+     * @return Number of orders moved and the outcome for each order ID
+     */
+    @PostMapping("/status/bulk")
+    public ResponseEntity<?> transitionOrderStatus(@RequestBody StatusTransitionRequest request) {
+        try {
+            List<StatusTransitionResult> results = orderService.transitionOrderStatus(request.getOrderIds(),
+                    request.getFromStatus(), request.getToStatus());
+            Map<String, Object> body = new LinkedHashMap<>();
+            body.put("transitioned", results.stream()
+                    .filter(r -> StatusTransitionResult.TRANSITIONED.equals(r.getOutcome()))
+                    .count());
+            body.put("results", results);
+            return ResponseEntity.ok(body);
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.badRequest().body(e.getMessage());
+        } catch (SQLException e) {
+            return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR)
+                    .body("Database error: " + e.getMessage());
+        }
+    }
+
     /**
      * GET /api/orders/user/{userId}/count - Get order count for user
      * 
@@ -180,11 +253,44 @@ public class OrderController {
     @GetMapping("/user/{userId}/count")
     public ResponseEntity<?> getUserOrderCount(@PathVariable Integer userId) {
         try {
-            int count = orderService.getUserOrderCount(userId);
+            long count = orderService.getUserOrderCount(userId);
             return ResponseEntity.ok(java.util.Map.of("count", count));
         } catch (SQLException e) {
             return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR)
                     .body("Database error: " + e.getMessage());
         }
     }
+
+    /**
+     * GET /api/orders/user/{userId}/stats - Get order statistics for user
+     * 
+     * @param userId User ID
+     * @return Order count, total spent and first and last order dates
+     */
+    @GetMapping("/user/{userId}/stats")
+    public ResponseEntity<?> getUserOrderStats(@PathVariable Integer userId) {
+        try {
+            OrderStats stats = orderService.getUserOrderStats(userId);
+            return ResponseEntity.ok(stats);
+        } catch (SQLException e) {
+            return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR)
+                    .body("Database error: " + e.getMessage());
+        }
+    }
+
+    /**
+     * GET /api/orders/stats/status - Get order statistics per status
+     * 
+     * @return Status to order count, total amount and date range
+     */
+    @GetMapping("/stats/status")
+    public ResponseEntity<?> getOrderStatsByStatus() {
+        try {
+            java.util.Map<String, OrderStats> stats = orderService.getOrderStatsByStatus();
+            return ResponseEntity.ok(stats);
+        } catch (SQLException e) {
+            return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR)
+                    .body("Database error: " + e.getMessage());
+        }
+    }
 }
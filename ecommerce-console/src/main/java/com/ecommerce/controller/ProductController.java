@@ -1,6 +1,8 @@
 package com.ecommerce.controller;
 
 import com.ecommerce.model.Product;
+import com.ecommerce.model.Page;
+import com.ecommerce.model.ProductSummary;
 import com.ecommerce.service.ProductService;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
@@ -66,14 +68,52 @@ public class ProductController {
 
     /**
      * GET /api/products - Get all products
+     * GET /api/products?limit=50&after={cursor} - Get one page of products
      * 
-     * @return List of all products
+     * @param after Cursor from the previous page's nextCursor
+     * @param limit Page size
+     * @return List of all products, or a page when after or limit is given
      */
     @GetMapping
-    public ResponseEntity<?> getAllProducts() {
+    public ResponseEntity<?> getAllProducts(@RequestParam(required = false) String after,
+            @RequestParam(required = false) Integer limit) {
         try {
-            List<Product> products = productService.getAllProducts();
+            if (after != null || limit != null) {
+                Page<ProductSummary> page = productService.getProductsPage(after, limit);
+                return ResponseEntity.ok(page);
+            }
+            List<ProductSummary> products = productService.getAllProducts();
             return ResponseEntity.ok(products);
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.badRequest().body(e.getMessage());
+        } catch (SQLException e) {
+            return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR)
+                    .body("Database error: " + e.getMessage());
+        }
+    }
+
+    /**
+     * GET /api/products/search?q=...&categoryId=&active=&limit=&after= -
+     * Search products by name and description
+     * 
+     * @param q          Search words
+     * @param categoryId Only this category (optional)
+     * @param active     Only active or inactive products (optional)
+     * @param after      Cursor from the previous page's nextCursor
+     * @param limit      Page size
+     * @return Page of matching products, most relevant first
+     */
+    @GetMapping("/search")
+    public ResponseEntity<?> searchProducts(@RequestParam String q,
+            @RequestParam(required = false) Integer categoryId,
+            @RequestParam(required = false) Boolean active,
+            @RequestParam(required = false) String after,
+            @RequestParam(required = false) Integer limit) {
+        try {
+            Page<ProductSummary> page = productService.searchProducts(q, categoryId, active, after, limit);
+            return ResponseEntity.ok(page);
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.badRequest().body(e.getMessage());
         } catch (SQLException e) {
             return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR)
                     .body("Database error: " + e.getMessage());
@@ -106,6 +146,30 @@ public class ProductController {
         }
     }
 
+    /**
+     * PATCH /api/products/{id} - Update only the supplied fields
+     * 
+     * @param id      Product ID
+     * @param changes Fields to change; omitted fields are left as they are
+     * @return Success message, or 404 if the product does not exist
+     */
+    @PatchMapping("/{id}")
+    public ResponseEntity<?> patchProduct(@PathVariable Integer id, @RequestBody Product changes) {
+        try {
+            boolean updated = productService.patchProduct(id, changes);
+            if (updated) {
+                return ResponseEntity.ok("Product updated successfully");
+            } else {
+                return ResponseEntity.notFound().build();
+            }
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.badRequest().body(e.getMessage());
+        } catch (SQLException e) {
+            return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR)
+                    .body("Database error: " + e.getMessage());
+        }
+    }
+
     /**
      * DELETE /api/products/{id} - Delete product
      * 
@@ -131,12 +195,12 @@ public class ProductController {
      * GET /api/products/category/{categoryId} - Get products by category
      * 
      * @param categoryId Category ID
-     * @return List of products in the category
+     * @return Summaries of the active products in the category
      */
     @GetMapping("/category/{categoryId}")
     public ResponseEntity<?> getProductsByCategory(@PathVariable Integer categoryId) {
         try {
-            List<Product> products = productService.getProductsByCategory(categoryId);
+            List<ProductSummary> products = productService.getProductsByCategory(categoryId);
             return ResponseEntity.ok(products);
         } catch (SQLException e) {
             return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR)
@@ -187,4 +251,31 @@ public class ProductController {
                     .body("Database error: " + e.getMessage());
         }
     }
+
+    /**
+     * POST /api/products/{id}/stock/decrement - Take stock for a sale
+     * 
+     * @param id        Product ID
+     * @param stockData Map containing quantity
+     * @return Success message, or 409 if there is not enough stock
+     */
+    @PostMapping("/{id}/stock/decrement")
+    public ResponseEntity<?> decrementStock(@PathVariable Integer id,
+            @RequestBody java.util.Map<String, Integer> stockData) {
+        try {
+            Integer quantity = stockData.get("quantity");
+            boolean decremented = productService.decrementStock(id, quantity);
+            if (decremented) {
+                return ResponseEntity.ok("Stock decremented successfully");
+            } else {
+                return ResponseEntity.status(HttpStatus.CONFLICT)
+                        .body("Insufficient stock");
+            }
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.badRequest().body(e.getMessage());
+        } catch (SQLException e) {
+            return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR)
+                    .body("Database error: " + e.getMessage());
+        }
+    }
 }
@@ -1,6 +1,8 @@
 package com.ecommerce.controller;
 
 import com.ecommerce.model.User;
+import com.ecommerce.model.Page;
+import com.ecommerce.model.UserSummary;
 import com.ecommerce.service.UserService;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
@@ -90,14 +92,24 @@ public class UserController {
 
     /**
      * GET /api/users - Get all users
+     * GET /api/users?limit=50&after={cursor} - Get one page of users
      * 
-     * @return List of all users
+     * @param after Cursor from the previous page's nextCursor
+     * @param limit Page size
+     * @return List of all users, or a page when after or limit is given
      */
     @GetMapping
-    public ResponseEntity<?> getAllUsers() {
+    public ResponseEntity<?> getAllUsers(@RequestParam(required = false) String after,
+            @RequestParam(required = false) Integer limit) {
         try {
-            List<User> users = userService.getAllUsers();
+            if (after != null || limit != null) {
+                Page<UserSummary> page = userService.getUsersPage(after, limit);
+                return ResponseEntity.ok(page);
+            }
+            List<UserSummary> users = userService.getAllUsers();
             return ResponseEntity.ok(users);
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.badRequest().body(e.getMessage());
         } catch (SQLException e) {
             return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR)
                     .body("Database error: " + e.getMessage());
@@ -130,6 +142,30 @@ public class UserController {
         }
     }
 
+    /**
+     * PATCH /api/users/{id} - Update only the supplied fields
+     * 
+     * @param id      User ID
+     * @param changes Fields to change; omitted fields are left as they are
+     * @return Success message, or 404 if the user does not exist
+     */
+    @PatchMapping("/{id}")
+    public ResponseEntity<?> patchUser(@PathVariable Integer id, @RequestBody User changes) {
+        try {
+            boolean updated = userService.patchUser(id, changes);
+            if (updated) {
+                return ResponseEntity.ok("User updated successfully");
+            } else {
+                return ResponseEntity.notFound().build();
+            }
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.badRequest().body(e.getMessage());
+        } catch (SQLException e) {
+            return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR)
+                    .body("Database error: " + e.getMessage());
+        }
+    }
+
     /**
      * DELETE /api/users/{id} - Delete user
      * 
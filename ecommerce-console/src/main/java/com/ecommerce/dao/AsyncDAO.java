@@ -0,0 +1,72 @@
+package com.ecommerce.dao;
+
+import com.ecommerce.db.DbExecutor;
+
+import java.sql.SQLException;
+import java.util.concurrent.CompletableFuture;
+
+/**
+ * CompletableFuture facade over a DAO.
+ *
+ * Each call runs on the bounded {@link DbExecutor}, so a caller can start
+ * several independent lookups and wait for them together, and request
+ * threads are not held while the database works. Stream-returning methods
+ * such as streamAll() keep their connection until the stream is closed and
+ * should be called directly instead.
+ *
+ * <pre>
+ * CompletableFuture&lt;User&gt; user = AsyncDAO.users().call(dao -&gt; dao.getById(userId));
+ * CompletableFuture&lt;List&lt;Order&gt;&gt; orders = AsyncDAO.orders().call(dao -&gt; dao.getByUserId(userId));
+ * </pre>
+ */
+public final class AsyncDAO<D> {
+    private final D dao;
+
+    /**
+     * DAO method call made on the executor
+     */
+    @FunctionalInterface
+    public interface Call<D, T> {
+        T apply(D dao) throws SQLException;
+    }
+
+    public AsyncDAO(D dao) {
+        this.dao = dao;
+    }
+
+    public static AsyncDAO<ProductDAO> products() {
+        return new AsyncDAO<>(new ProductDAOImpl());
+    }
+
+    public static AsyncDAO<OrderDAO> orders() {
+        return new AsyncDAO<>(new OrderDAOImpl());
+    }
+
+    public static AsyncDAO<OrderItemDAO> orderItems() {
+        return new AsyncDAO<>(new OrderItemDAOImpl());
+    }
+
+    public static AsyncDAO<UserDAO> users() {
+        return new AsyncDAO<>(new UserDAOImpl());
+    }
+
+    public static AsyncDAO<CategoryDAO> categories() {
+        return new AsyncDAO<>(new CategoryDAOImpl());
+    }
+
+    /**
+     * @param call DAO method to run
+     * @return Future completed with the method's result, or exceptionally
+     *         with the SQLException or RuntimeException it threw
+     */
+    public <T> CompletableFuture<T> call(Call<D, T> call) {
+        return DbExecutor.supply(() -> call.apply(dao));
+    }
+
+    /**
+     * @return The wrapped DAO, for calls made on the current thread
+     */
+    public D blocking() {
+        return dao;
+    }
+}
@@ -0,0 +1,75 @@
+package com.ecommerce.dao;
+
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.List;
+
+/**
+ * Shared JDBC batching for the DAOs' createAll methods.
+ *
+ * Rows are sent in batches of DB_BATCH_SIZE. With rewriteBatchedStatements
+ * on, the driver turns each batch into multi-row INSERTs (split to fit
+ * max_allowed_packet), so a batch costs about one round trip. Generated keys
+ * come back in row order and are copied onto the model objects.
+ */
+final class BatchInsert {
+
+    /**
+     * Sets one row's parameters on the INSERT statement
+     */
+    @FunctionalInterface
+    interface Binder<T> {
+        void bind(PreparedStatement stmt, T row) throws SQLException;
+    }
+
+    /**
+     * Stores a generated key on a row
+     */
+    @FunctionalInterface
+    interface KeySetter<T> {
+        void setKey(T row, int key);
+    }
+
+    private BatchInsert() {
+    }
+
+    /**
+     * Insert rows on one connection
+     *
+     * @param conn      Connection to insert on
+     * @param sql       Single-row INSERT with placeholders
+     * @param rows      Rows to insert
+     * @param batchSize Rows per JDBC batch
+     * @param binder    Sets a row's parameters
+     * @param keySetter Stores a row's generated key
+     * @param entity    Entity name for error messages
+     * @throws SQLException if a batch fails or returns the wrong number of keys
+     */
+    static <T> void insert(Connection conn, String sql, List<T> rows, int batchSize,
+            Binder<T> binder, KeySetter<T> keySetter, String entity) throws SQLException {
+        try (PreparedStatement stmt = conn.prepareStatement(sql, Statement.RETURN_GENERATED_KEYS)) {
+            for (int start = 0; start < rows.size(); start += batchSize) {
+                List<T> batch = rows.subList(start, Math.min(start + batchSize, rows.size()));
+                for (T row : batch) {
+                    binder.bind(stmt, row);
+                    stmt.addBatch();
+                }
+                stmt.executeBatch();
+
+                int assigned = 0;
+                try (ResultSet generatedKeys = stmt.getGeneratedKeys()) {
+                    while (assigned < batch.size() && generatedKeys.next()) {
+                        keySetter.setKey(batch.get(assigned++), generatedKeys.getInt(1));
+                    }
+                }
+                if (assigned != batch.size()) {
+                    throw new SQLException("Creating " + entity + "s failed, obtained " + assigned
+                            + " IDs for " + batch.size() + " rows.");
+                }
+            }
+        }
+    }
+}
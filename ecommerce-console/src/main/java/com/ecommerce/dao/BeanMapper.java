@@ -0,0 +1,369 @@
+package com.ecommerce.dao;
+
+import java.lang.invoke.LambdaMetafactory;
+import java.lang.invoke.MethodHandle;
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.MethodType;
+import java.lang.reflect.Method;
+import java.lang.reflect.Modifier;
+import java.math.BigDecimal;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Timestamp;
+import java.sql.Types;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.function.BiConsumer;
+import java.util.function.Function;
+import java.util.function.Supplier;
+
+/**
+ * Row mapping and parameter binding generated from a model class.
+ *
+ * The model's properties are found once per class from its public
+ * getX/setX pairs; property fooBar maps to column foo_bar. The no-arg
+ * constructor, setters and getters are compiled into lambdas with
+ * {@link LambdaMetafactory}, so mapping a row makes ordinary interface calls
+ * that the JIT can inline, with no reflection per row.
+ *
+ * A {@link Reader} is resolved once per result set and reads each column by
+ * position; a {@link Writer} binds a fixed list of columns to statement
+ * parameters. Both are reusable across calls.
+ *
+ * Supported property types: Integer, Long, Boolean, String, BigDecimal and
+ * Timestamp. SQL NULL maps to null and back.
+ */
+public final class BeanMapper<T> {
+    private static final ClassValue<BeanMapper<?>> MAPPERS = new ClassValue<>() {
+        @Override
+        protected BeanMapper<?> computeValue(Class<?> type) {
+            return new BeanMapper<>(type);
+        }
+    };
+
+    private final Class<T> type;
+    private final Supplier<T> factory;
+    private final Map<String, Property<T>> properties = new HashMap<>();
+    private final List<Property<T>> ordered = new ArrayList<>();
+
+    /**
+     * @param type Model class with a public no-arg constructor
+     * @return The mapper for that class, built on first use
+     */
+    @SuppressWarnings("unchecked")
+    public static <T> BeanMapper<T> of(Class<T> type) {
+        return (BeanMapper<T>) MAPPERS.get(type);
+    }
+
+    @SuppressWarnings("unchecked")
+    private BeanMapper(Class<T> type) {
+        this.type = type;
+        MethodHandles.Lookup lookup = MethodHandles.lookup();
+        try {
+            MethodHandle constructor = lookup.findConstructor(type, MethodType.methodType(void.class));
+            this.factory = (Supplier<T>) LambdaMetafactory.metafactory(lookup, "get",
+                    MethodType.methodType(Supplier.class),
+                    MethodType.methodType(Object.class),
+                    constructor,
+                    MethodType.methodType(type))
+                    .getTarget().invoke();
+
+            for (Method setter : type.getMethods()) {
+                Column<?> column = setter.getParameterCount() == 1 ? Column.forType(setter.getParameterTypes()[0])
+                        : null;
+                if (column == null || !setter.getName().startsWith("set") || setter.getName().length() == 3
+                        || Modifier.isStatic(setter.getModifiers())) {
+                    continue;
+                }
+                String name = setter.getName().substring(3);
+                Method getter;
+                try {
+                    getter = type.getMethod("get" + name);
+                } catch (NoSuchMethodException e) {
+                    continue;
+                }
+                if (getter.getReturnType() != setter.getParameterTypes()[0]) {
+                    continue;
+                }
+                Property<T> property = new Property<>(columnName(name), (Column<Object>) column,
+                        compileSetter(lookup, setter), compileGetter(lookup, getter));
+                properties.put(property.column, property);
+                ordered.add(property);
+            }
+        } catch (Throwable t) {
+            throw new IllegalStateException("Cannot build a row mapper for " + type.getName(), t);
+        }
+    }
+
+    /**
+     * Resolve the positions of every property's column in a result set
+     *
+     * @param rs Result set to read
+     * @return Reader for the rows of that result set
+     * @throws SQLException if the result set lacks a property's column
+     */
+    public Reader<T> reader(ResultSet rs) throws SQLException {
+        ColumnIndex columns = ColumnIndex.of(rs);
+        int[] positions = new int[ordered.size()];
+        for (int i = 0; i < positions.length; i++) {
+            positions[i] = columns.require(ordered.get(i).column);
+        }
+        return new Reader<>(this, positions);
+    }
+
+    /**
+     * Build a binder for the given columns, in parameter order
+     *
+     * @param columns Column names of the model's properties
+     * @return Writer that binds them
+     * @throws IllegalArgumentException if a column is not a property of the
+     *                                  model
+     */
+    public Writer<T> writer(String... columns) {
+        List<Property<T>> selected = new ArrayList<>(columns.length);
+        for (String column : columns) {
+            Property<T> property = properties.get(column.toLowerCase(Locale.ROOT));
+            if (property == null) {
+                throw new IllegalArgumentException(type.getSimpleName() + " has no property for column " + column);
+            }
+            selected.add(property);
+        }
+        return new Writer<>(selected);
+    }
+
+    /**
+     * Maps the rows of one result set
+     */
+    public static final class Reader<T> {
+        private final Supplier<T> factory;
+        private final List<Property<T>> properties;
+        private final int[] positions;
+
+        private Reader(BeanMapper<T> mapper, int[] positions) {
+            this.factory = mapper.factory;
+            this.properties = List.copyOf(mapper.ordered);
+            this.positions = positions;
+        }
+
+        /**
+         * @param rs Result set positioned on a row
+         * @return A new model object holding that row
+         */
+        public T read(ResultSet rs) throws SQLException {
+            T bean = factory.get();
+            for (int i = 0; i < properties.size(); i++) {
+                Property<T> property = properties.get(i);
+                property.setter.accept(bean, property.column().read(rs, positions[i]));
+            }
+            return bean;
+        }
+    }
+
+    /**
+     * Binds a fixed list of model properties to statement parameters
+     */
+    public static final class Writer<T> {
+        private final List<Property<T>> properties;
+
+        private Writer(List<Property<T>> properties) {
+            this.properties = List.copyOf(properties);
+        }
+
+        /**
+         * @param stmt       Statement to bind
+         * @param firstIndex Parameter index of the first column
+         * @param bean       Model object to read the values from
+         * @return Index of the next parameter after the bound ones
+         */
+        public int write(PreparedStatement stmt, int firstIndex, T bean) throws SQLException {
+            int index = firstIndex;
+            for (Property<T> property : properties) {
+                property.column().write(stmt, index++, property.getter.apply(bean));
+            }
+            return index;
+        }
+    }
+
+    private static final class Property<T> {
+        private final String column;
+        private final Column<Object> type;
+        private final BiConsumer<T, Object> setter;
+        private final Function<T, Object> getter;
+
+        Property(String column, Column<Object> type, BiConsumer<T, Object> setter, Function<T, Object> getter) {
+            this.column = column;
+            this.type = type;
+            this.setter = setter;
+            this.getter = getter;
+        }
+
+        Column<Object> column() {
+            return type;
+        }
+    }
+
+    /**
+     * JDBC access for one Java type
+     */
+    private interface Column<V> {
+        V read(ResultSet rs, int position) throws SQLException;
+
+        void write(PreparedStatement stmt, int index, V value) throws SQLException;
+
+        static Column<?> forType(Class<?> javaType) {
+            if (javaType == Integer.class) {
+                return INTEGER;
+            }
+            if (javaType == Long.class) {
+                return LONG;
+            }
+            if (javaType == Boolean.class) {
+                return BOOLEAN;
+            }
+            if (javaType == String.class) {
+                return STRING;
+            }
+            if (javaType == BigDecimal.class) {
+                return DECIMAL;
+            }
+            if (javaType == Timestamp.class) {
+                return TIMESTAMP;
+            }
+            return null;
+        }
+    }
+
+    private static final Column<Integer> INTEGER = new Column<>() {
+        @Override
+        public Integer read(ResultSet rs, int position) throws SQLException {
+            int value = rs.getInt(position);
+            return value == 0 && rs.wasNull() ? null : value;
+        }
+
+        @Override
+        public void write(PreparedStatement stmt, int index, Integer value) throws SQLException {
+            if (value != null) {
+                stmt.setInt(index, value);
+            } else {
+                stmt.setNull(index, Types.INTEGER);
+            }
+        }
+    };
+
+    private static final Column<Long> LONG = new Column<>() {
+        @Override
+        public Long read(ResultSet rs, int position) throws SQLException {
+            long value = rs.getLong(position);
+            return value == 0 && rs.wasNull() ? null : value;
+        }
+
+        @Override
+        public void write(PreparedStatement stmt, int index, Long value) throws SQLException {
+            if (value != null) {
+                stmt.setLong(index, value);
+            } else {
+                stmt.setNull(index, Types.BIGINT);
+            }
+        }
+    };
+
+    private static final Column<Boolean> BOOLEAN = new Column<>() {
+        @Override
+        public Boolean read(ResultSet rs, int position) throws SQLException {
+            boolean value = rs.getBoolean(position);
+            return !value && rs.wasNull() ? null : value;
+        }
+
+        @Override
+        public void write(PreparedStatement stmt, int index, Boolean value) throws SQLException {
+            if (value != null) {
+                stmt.setBoolean(index, value);
+            } else {
+                stmt.setNull(index, Types.BOOLEAN);
+            }
+        }
+    };
+
+    private static final Column<String> STRING = new Column<>() {
+        @Override
+        public String read(ResultSet rs, int position) throws SQLException {
+            return rs.getString(position);
+        }
+
+        @Override
+        public void write(PreparedStatement stmt, int index, String value) throws SQLException {
+            stmt.setString(index, value);
+        }
+    };
+
+    private static final Column<BigDecimal> DECIMAL = new Column<>() {
+        @Override
+        public BigDecimal read(ResultSet rs, int position) throws SQLException {
+            return rs.getBigDecimal(position);
+        }
+
+        @Override
+        public void write(PreparedStatement stmt, int index, BigDecimal value) throws SQLException {
+            stmt.setBigDecimal(index, value);
+        }
+    };
+
+    private static final Column<Timestamp> TIMESTAMP = new Column<>() {
+        @Override
+        public Timestamp read(ResultSet rs, int position) throws SQLException {
+            return rs.getTimestamp(position);
+        }
+
+        @Override
+        public void write(PreparedStatement stmt, int index, Timestamp value) throws SQLException {
+            stmt.setTimestamp(index, value);
+        }
+    };
+
+    @SuppressWarnings("unchecked")
+    private static <T> BiConsumer<T, Object> compileSetter(MethodHandles.Lookup lookup, Method setter)
+            throws Throwable {
+        MethodHandle target = lookup.unreflect(setter);
+        return (BiConsumer<T, Object>) LambdaMetafactory.metafactory(lookup, "accept",
+                MethodType.methodType(BiConsumer.class),
+                MethodType.methodType(void.class, Object.class, Object.class),
+                target,
+                target.type().changeReturnType(void.class))
+                .getTarget().invoke();
+    }
+
+    @SuppressWarnings("unchecked")
+    private static <T> Function<T, Object> compileGetter(MethodHandles.Lookup lookup, Method getter)
+            throws Throwable {
+        MethodHandle target = lookup.unreflect(getter);
+        return (Function<T, Object>) LambdaMetafactory.metafactory(lookup, "apply",
+                MethodType.methodType(Function.class),
+                MethodType.methodType(Object.class, Object.class),
+                target,
+                target.type())
+                .getTarget().invoke();
+    }
+
+    /**
+     * fooBar -> foo_bar
+     */
+    private static String columnName(String property) {
+        StringBuilder column = new StringBuilder(property.length() + 4);
+        for (int i = 0; i < property.length(); i++) {
+            char c = property.charAt(i);
+            if (Character.isUpperCase(c)) {
+                if (i > 0) {
+                    column.append('_');
+                }
+                column.append(Character.toLowerCase(c));
+            } else {
+                column.append(c);
+            }
+        }
+        return column.toString();
+    }
+}
@@ -1,6 +1,7 @@
 package com.ecommerce.dao;
 
 import com.ecommerce.model.Category;
+import com.ecommerce.model.Page;
 import java.sql.SQLException;
 import java.util.List;
 
@@ -11,6 +12,8 @@ public interface CategoryDAO {
 
     List<Category> getAll() throws SQLException;
 
+    Page<Category> page(String afterCursor, int limit) throws SQLException;
+
     boolean update(Category category) throws SQLException;
 
     boolean delete(Integer id) throws SQLException;
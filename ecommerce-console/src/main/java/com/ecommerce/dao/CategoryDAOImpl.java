@@ -2,12 +2,19 @@ package com.ecommerce.dao;
 
 import com.ecommerce.db.DatabaseConnection;
 import com.ecommerce.model.Category;
+import com.ecommerce.model.Page;
 
 import java.sql.*;
 import java.util.ArrayList;
 import java.util.List;
 
 public class CategoryDAOImpl implements CategoryDAO {
+    private static final BeanMapper<Category> CATEGORIES = BeanMapper.of(Category.class);
+
+    /**
+     * Binds the insert and update columns, in this order
+     */
+    private static final BeanMapper.Writer<Category> CATEGORY_FIELDS = CATEGORIES.writer("name", "description");
 
     @Override
     public Category create(Category category) throws SQLException {
@@ -16,8 +23,7 @@ public class CategoryDAOImpl implements CategoryDAO {
         try (Connection conn = DatabaseConnection.getConnection();
                 PreparedStatement stmt = conn.prepareStatement(sql, Statement.RETURN_GENERATED_KEYS)) {
 
-            stmt.setString(1, category.getName());
-            stmt.setString(2, category.getDescription());
+            CATEGORY_FIELDS.write(stmt, 1, category);
 
             int affectedRows = stmt.executeUpdate();
 
@@ -41,14 +47,15 @@ public class CategoryDAOImpl implements CategoryDAO {
     public Category getById(Integer id) throws SQLException {
         String sql = "SELECT * FROM categories WHERE category_id = ?";
 
-        try (Connection conn = DatabaseConnection.getConnection();
+        try (Connection conn = DatabaseConnection.getReadConnection();
                 PreparedStatement stmt = conn.prepareStatement(sql)) {
 
             stmt.setInt(1, id);
 
             try (ResultSet rs = stmt.executeQuery()) {
+                BeanMapper.Reader<Category> reader = CATEGORIES.reader(rs);
                 if (rs.next()) {
-                    return mapResultSetToCategory(rs);
+                    return reader.read(rs);
                 }
             }
         }
@@ -61,18 +68,50 @@ public class CategoryDAOImpl implements CategoryDAO {
         String sql = "SELECT * FROM categories ORDER BY name";
         List<Category> categories = new ArrayList<>();
 
-        try (Connection conn = DatabaseConnection.getConnection();
+        try (Connection conn = DatabaseConnection.getReadConnection();
                 Statement stmt = conn.createStatement();
                 ResultSet rs = stmt.executeQuery(sql)) {
+            BeanMapper.Reader<Category> reader = CATEGORIES.reader(rs);
 
             while (rs.next()) {
-                categories.add(mapResultSetToCategory(rs));
+                categories.add(reader.read(rs));
             }
         }
 
         return categories;
     }
 
+    /**
+     * Category names are unique, so the name alone is the seek key.
+     */
+    @Override
+    public Page<Category> page(String afterCursor, int limit) throws SQLException {
+        PageCursor.checkLimit(limit);
+        String sql = afterCursor == null
+                ? "SELECT * FROM categories ORDER BY name LIMIT ?"
+                : "SELECT * FROM categories WHERE name > ? ORDER BY name LIMIT ?";
+        List<Category> categories = new ArrayList<>();
+
+        try (Connection conn = DatabaseConnection.getReadConnection();
+                PreparedStatement stmt = conn.prepareStatement(sql)) {
+
+            int index = 1;
+            if (afterCursor != null) {
+                stmt.setString(index++, (String) PageCursor.decode(afterCursor, "categories", String.class)[0]);
+            }
+            stmt.setInt(index, limit + 1);
+
+            try (ResultSet rs = stmt.executeQuery()) {
+                BeanMapper.Reader<Category> reader = CATEGORIES.reader(rs);
+                while (rs.next()) {
+                    categories.add(reader.read(rs));
+                }
+            }
+        }
+
+        return PageCursor.page(categories, limit, c -> PageCursor.encode("categories", c.getName()));
+    }
+
     @Override
     public boolean update(Category category) throws SQLException {
         String sql = "UPDATE categories SET name = ?, description = ? WHERE category_id = ?";
@@ -80,9 +119,8 @@ public class CategoryDAOImpl implements CategoryDAO {
         try (Connection conn = DatabaseConnection.getConnection();
                 PreparedStatement stmt = conn.prepareStatement(sql)) {
 
-            stmt.setString(1, category.getName());
-            stmt.setString(2, category.getDescription());
-            stmt.setInt(3, category.getCategoryId());
+            int index = CATEGORY_FIELDS.write(stmt, 1, category);
+            stmt.setInt(index, category.getCategoryId());
 
             return stmt.executeUpdate() > 0;
         }
@@ -99,14 +137,4 @@ public class CategoryDAOImpl implements CategoryDAO {
             return stmt.executeUpdate() > 0;
         }
     }
-
-    private Category mapResultSetToCategory(ResultSet rs) throws SQLException {
-        Category category = new Category();
-        category.setCategoryId(rs.getInt("category_id"));
-        category.setName(rs.getString("name"));
-        category.setDescription(rs.getString("description"));
-        category.setCreatedAt(rs.getTimestamp("created_at"));
-        category.setUpdatedAt(rs.getTimestamp("updated_at"));
-        return category;
-    }
 }
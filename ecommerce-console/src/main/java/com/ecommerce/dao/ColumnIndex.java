@@ -0,0 +1,61 @@
+package com.ecommerce.dao;
+
+import java.sql.ResultSet;
+import java.sql.ResultSetMetaData;
+import java.sql.SQLException;
+import java.util.HashMap;
+import java.util.Locale;
+import java.util.Map;
+
+/**
+ * Column label to position lookup for one result set.
+ *
+ * The DAO mappers resolve every column they read once per query through this
+ * class and then read each row by index, instead of making the driver search
+ * for each column name on every row.
+ */
+final class ColumnIndex {
+    private final Map<String, Integer> positions;
+
+    private ColumnIndex(Map<String, Integer> positions) {
+        this.positions = positions;
+    }
+
+    /**
+     * @param rs Result set whose metadata to read
+     * @return Column positions by lower-case label
+     */
+    static ColumnIndex of(ResultSet rs) throws SQLException {
+        ResultSetMetaData metaData = rs.getMetaData();
+        int count = metaData.getColumnCount();
+        Map<String, Integer> positions = new HashMap<>(count * 2);
+        for (int i = 1; i <= count; i++) {
+            // First occurrence wins, like ResultSet.findColumn
+            positions.putIfAbsent(metaData.getColumnLabel(i).toLowerCase(Locale.ROOT), i);
+        }
+        return new ColumnIndex(positions);
+    }
+
+    /**
+     * @param label Column label
+     * @return 1-based column position, or 0 if the result set has no such
+     *         column
+     */
+    int find(String label) {
+        Integer position = positions.get(label.toLowerCase(Locale.ROOT));
+        return position != null ? position : 0;
+    }
+
+    /**
+     * @param label Column label
+     * @return 1-based column position
+     * @throws SQLException if the result set has no such column
+     */
+    int require(String label) throws SQLException {
+        Integer position = positions.get(label.toLowerCase(Locale.ROOT));
+        if (position == null) {
+            throw new SQLException("Column '" + label + "' not found in result set");
+        }
+        return position;
+    }
+}
@@ -0,0 +1,87 @@
+package com.ecommerce.dao;
+
+import java.sql.PreparedStatement;
+import java.sql.SQLException;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.LinkedHashSet;
+import java.util.List;
+
+/**
+ * IN-list helpers for the DAOs' getByIds methods and other key lookups.
+ *
+ * Ids are de-duplicated and split into chunks of at most MAX_CHUNK. Each
+ * chunk's placeholder count is rounded up to a power of two and the spare
+ * slots repeat the last id, so only a handful of distinct SQL strings exist
+ * and the per-connection statement cache keeps hitting.
+ */
+final class InList {
+    static final int MAX_CHUNK = 512;
+
+    private InList() {
+    }
+
+    /**
+     * @param ids Ids (or other keys) to look up; nulls and duplicates are
+     *            dropped
+     * @return Chunks of at most MAX_CHUNK ids
+     */
+    static <T> List<List<T>> chunks(Collection<T> ids) {
+        List<T> distinct = new ArrayList<>(new LinkedHashSet<>(ids));
+        distinct.removeIf(id -> id == null);
+        List<List<T>> chunks = new ArrayList<>();
+        for (int start = 0; start < distinct.size(); start += MAX_CHUNK) {
+            chunks.add(distinct.subList(start, Math.min(start + MAX_CHUNK, distinct.size())));
+        }
+        return chunks;
+    }
+
+    /**
+     * @param count Ids in the chunk
+     * @return Placeholder count: the next power of two, at most MAX_CHUNK
+     */
+    static int paddedSize(int count) {
+        return count <= 1 ? 1 : Math.min(MAX_CHUNK, Integer.highestOneBit(count - 1) << 1);
+    }
+
+    /**
+     * @param size Number of placeholders
+     * @return "?, ?, ..." for use inside IN (...)
+     */
+    static String placeholders(int size) {
+        StringBuilder sb = new StringBuilder(size * 3);
+        for (int i = 0; i < size; i++) {
+            sb.append(i == 0 ? "?" : ", ?");
+        }
+        return sb.toString();
+    }
+
+    /**
+     * Bind a chunk, repeating its last id in the padding slots
+     *
+     * @param stmt       Statement to bind
+     * @param firstIndex Parameter index of the first placeholder
+     * @param chunk      Ids
+     * @param size       Placeholder count from paddedSize
+     */
+    static void bind(PreparedStatement stmt, int firstIndex, List<Integer> chunk, int size) throws SQLException {
+        for (int i = 0; i < size; i++) {
+            stmt.setInt(firstIndex + i, chunk.get(Math.min(i, chunk.size() - 1)));
+        }
+    }
+
+    /**
+     * Bind a chunk of string keys, repeating the last one in the padding slots
+     *
+     * @param stmt       Statement to bind
+     * @param firstIndex Parameter index of the first placeholder
+     * @param chunk      Keys
+     * @param size       Placeholder count from paddedSize
+     */
+    static void bindStrings(PreparedStatement stmt, int firstIndex, List<String> chunk, int size)
+            throws SQLException {
+        for (int i = 0; i < size; i++) {
+            stmt.setString(firstIndex + i, chunk.get(Math.min(i, chunk.size() - 1)));
+        }
+    }
+}
@@ -0,0 +1,25 @@
+package com.ecommerce.dao;
+
+/**
+ * Thrown when an update carries a row version that is no longer current:
+ * someone else changed the row after the caller read it. Unchecked so it
+ * passes through the service layer and can be mapped to HTTP 409 at the
+ * controller boundary.
+ */
+public class OptimisticLockException extends RuntimeException {
+    private static final long serialVersionUID = 1L;
+
+    private final Integer currentVersion;
+
+    public OptimisticLockException(String message, Integer currentVersion) {
+        super(message);
+        this.currentVersion = currentVersion;
+    }
+
+    /**
+     * @return The row's version when the conflict was detected
+     */
+    public Integer getCurrentVersion() {
+        return currentVersion;
+    }
+}
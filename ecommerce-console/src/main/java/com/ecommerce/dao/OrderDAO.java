@@ -1,19 +1,43 @@
 package com.ecommerce.dao;
 
 import com.ecommerce.model.Order;
+import com.ecommerce.model.OrderDetails;
+import com.ecommerce.model.OrderStats;
+import com.ecommerce.model.Page;
+import com.ecommerce.model.StatusTransitionResult;
 import java.sql.SQLException;
+import java.util.Collection;
 import java.util.List;
+import java.util.Map;
+import java.util.stream.Stream;
 
 public interface OrderDAO {
     Order create(Order order) throws SQLException;
 
     Order getById(Integer id) throws SQLException;
 
+    OrderDetails getDetails(Integer id) throws SQLException;
+
+    Map<Integer, Order> getByIds(Collection<Integer> ids) throws SQLException;
+
     List<Order> getAll() throws SQLException;
 
+    Page<Order> page(String afterCursor, int limit) throws SQLException;
+
+    Stream<Order> streamAll() throws SQLException;
+
     boolean update(Order order) throws SQLException;
 
+    List<StatusTransitionResult> transitionStatus(Collection<Integer> ids, String fromStatus, String toStatus)
+            throws SQLException;
+
     boolean delete(Integer id) throws SQLException;
 
     List<Order> getByUserId(Integer userId) throws SQLException;
+
+    long countByUserId(Integer userId) throws SQLException;
+
+    OrderStats getStatsByUserId(Integer userId) throws SQLException;
+
+    Map<String, OrderStats> getStatsByStatus() throws SQLException;
 }
@@ -1,39 +1,57 @@
 package com.ecommerce.dao;
 
 import com.ecommerce.db.DatabaseConnection;
+import com.ecommerce.db.DbExecutor;
+import com.ecommerce.db.OrderShards;
+import com.ecommerce.db.UnitOfWork;
 import com.ecommerce.model.Order;
-
+import com.ecommerce.model.OrderDetails;
+import com.ecommerce.model.OrderLine;
+import com.ecommerce.model.OrderStats;
+import com.ecommerce.model.Page;
+import com.ecommerce.model.StatusTransitionResult;
+import com.ecommerce.model.UserSummary;
+
+import java.math.BigDecimal;
 import java.sql.*;
 import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
 import java.util.List;
-
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.CompletableFuture;
+import java.util.stream.Stream;
+
+/**
+ * Orders live on the shard chosen by user_id (see {@link OrderShards}); with
+ * sharding off that is the primary database.
+ */
 public class OrderDAOImpl implements OrderDAO {
+    private static final Comparator<Order> NEWEST_FIRST = Comparator
+            .comparing(Order::getOrderDate, Comparator.nullsLast(Comparator.reverseOrder()))
+            .thenComparing(Order::getOrderId, Comparator.reverseOrder());
+
+    private static final BeanMapper<Order> ORDERS = BeanMapper.of(Order.class);
+
+    /**
+     * Binds the insert and update columns, in this order
+     */
+    private static final BeanMapper.Writer<Order> ORDER_FIELDS = ORDERS.writer(
+            "user_id", "order_number", "status", "total_amount", "shipping_address_id", "billing_address_id",
+            "notes");
 
     @Override
     public Order create(Order order) throws SQLException {
         String sql = "INSERT INTO orders (user_id, order_number, status, total_amount, shipping_address_id, billing_address_id, notes) VALUES (?, ?, ?, ?, ?, ?, ?)";
+        int shard = OrderShards.shardForUser(order.getUserId());
 
-        try (Connection conn = DatabaseConnection.getConnection();
+        try (Connection conn = OrderShards.getConnection(shard);
                 PreparedStatement stmt = conn.prepareStatement(sql, Statement.RETURN_GENERATED_KEYS)) {
 
-            stmt.setInt(1, order.getUserId());
-            stmt.setString(2, order.getOrderNumber());
-            stmt.setString(3, order.getStatus());
-            stmt.setBigDecimal(4, order.getTotalAmount());
-
-            if (order.getShippingAddressId() != null) {
-                stmt.setInt(5, order.getShippingAddressId());
-            } else {
-                stmt.setNull(5, Types.INTEGER);
-            }
-
-            if (order.getBillingAddressId() != null) {
-                stmt.setInt(6, order.getBillingAddressId());
-            } else {
-                stmt.setNull(6, Types.INTEGER);
-            }
-
-            stmt.setString(7, order.getNotes());
+            ORDER_FIELDS.write(stmt, 1, order);
 
             int affectedRows = stmt.executeUpdate();
 
@@ -43,7 +61,8 @@ public class OrderDAOImpl implements OrderDAO {
 
             try (ResultSet generatedKeys = stmt.getGeneratedKeys()) {
                 if (generatedKeys.next()) {
-                    order.setOrderId(generatedKeys.getInt(1));
+                    order.setOrderId(OrderShards.encode(generatedKeys.getInt(1), shard));
+                    order.setVersion(0);
                 } else {
                     throw new SQLException("Creating order failed, no ID obtained.");
                 }
@@ -56,15 +75,17 @@ public class OrderDAOImpl implements OrderDAO {
     @Override
     public Order getById(Integer id) throws SQLException {
         String sql = "SELECT * FROM orders WHERE order_id = ?";
+        int shard = OrderShards.shardOf(id);
 
-        try (Connection conn = DatabaseConnection.getConnection();
+        try (Connection conn = OrderShards.getReadConnection(shard);
                 PreparedStatement stmt = conn.prepareStatement(sql)) {
 
-            stmt.setInt(1, id);
+            stmt.setInt(1, OrderShards.localId(id));
 
             try (ResultSet rs = stmt.executeQuery()) {
+                BeanMapper.Reader<Order> reader = ORDERS.reader(rs);
                 if (rs.next()) {
-                    return mapResultSetToOrder(rs);
+                    return mapResultSetToOrder(rs, reader, shard);
                 }
             }
         }
@@ -72,52 +93,379 @@ public class OrderDAOImpl implements OrderDAO {
         return null;
     }
 
+    /**
+     * Load an order with its customer and lines. Without sharding this is one
+     * joined query. With sharding, users and products are on another database,
+     * so it takes three: the order and its items from the shard, then the
+     * customer and all the line products from the primary.
+     */
     @Override
-    public List<Order> getAll() throws SQLException {
-        String sql = "SELECT * FROM orders ORDER BY order_date DESC";
-        List<Order> orders = new ArrayList<>();
+    public OrderDetails getDetails(Integer id) throws SQLException {
+        boolean joinPrimary = !OrderShards.isEnabled();
+        String sql = "SELECT o.*, oi.order_item_id, oi.product_id, oi.quantity, oi.unit_price, oi.subtotal" +
+                (joinPrimary
+                        ? ", u.username, u.email, u.first_name, u.last_name, u.role, u.is_active, " +
+                                "p.name AS product_name, p.sku " +
+                                "FROM orders o " +
+                                "JOIN users u ON u.user_id = o.user_id " +
+                                "LEFT JOIN order_items oi ON oi.order_id = o.order_id " +
+                                "LEFT JOIN products p ON p.product_id = oi.product_id "
+                        : " FROM orders o " +
+                                "LEFT JOIN order_items oi ON oi.order_id = o.order_id ")
+                + "WHERE o.order_id = ? ORDER BY oi.order_item_id";
+        int shard = OrderShards.shardOf(id);
+        OrderDetails details = null;
+
+        try (Connection conn = OrderShards.getReadConnection(shard);
+                PreparedStatement stmt = conn.prepareStatement(sql)) {
+
+            stmt.setInt(1, OrderShards.localId(id));
+
+            try (ResultSet rs = stmt.executeQuery()) {
+                BeanMapper.Reader<Order> reader = ORDERS.reader(rs);
+                DetailColumns detailColumns = new DetailColumns(rs);
+                while (rs.next()) {
+                    if (details == null) {
+                        details = new OrderDetails();
+                        details.setOrder(mapResultSetToOrder(rs, reader, shard));
+                        if (joinPrimary) {
+                            details.setCustomer(mapResultSetToCustomer(rs, detailColumns));
+                        }
+                    }
+                    if (rs.getObject(detailColumns.orderItemId) != null) {
+                        details.getItems().add(mapResultSetToLine(rs, detailColumns, shard));
+                    }
+                }
+            }
+        }
+
+        if (details != null && !joinPrimary) {
+            loadCustomerAndProducts(details);
+        }
+        return details;
+    }
+
+    /**
+     * Fill in the customer and product columns of a sharded order's details
+     * from the primary database. The customer lookup runs on the
+     * {@link DbExecutor} while the products are read here; when this is
+     * already an executor task, it runs inline instead.
+     */
+    private void loadCustomerAndProducts(OrderDetails details) throws SQLException {
+        Integer userId = details.getOrder().getUserId();
+        CompletableFuture<UserSummary> customer = DbExecutor.supply(() -> loadCustomer(userId));
+        loadLineProducts(details);
+        details.setCustomer(DbExecutor.await(customer));
+    }
+
+    private UserSummary loadCustomer(Integer userId) throws SQLException {
+        String sql = "SELECT user_id, username, email, first_name, last_name, role, is_active " +
+                "FROM users WHERE user_id = ?";
+
+        try (Connection conn = DatabaseConnection.getReadConnection();
+                PreparedStatement stmt = conn.prepareStatement(sql)) {
+
+            stmt.setInt(1, userId);
+
+            try (ResultSet rs = stmt.executeQuery()) {
+                DetailColumns columns = new DetailColumns(rs);
+                if (rs.next()) {
+                    return mapResultSetToCustomer(rs, columns);
+                }
+            }
+        }
+
+        return null;
+    }
 
-        try (Connection conn = DatabaseConnection.getConnection();
-                Statement stmt = conn.createStatement();
-                ResultSet rs = stmt.executeQuery(sql)) {
+    private void loadLineProducts(OrderDetails details) throws SQLException {
+        Map<Integer, List<OrderLine>> linesByProduct = new HashMap<>();
+        for (OrderLine line : details.getItems()) {
+            linesByProduct.computeIfAbsent(line.getProductId(), p -> new ArrayList<>()).add(line);
+        }
+        List<List<Integer>> chunks = InList.chunks(linesByProduct.keySet());
+        if (chunks.isEmpty()) {
+            return;
+        }
+
+        try (Connection conn = DatabaseConnection.getReadConnection()) {
+            for (List<Integer> chunk : chunks) {
+                int size = InList.paddedSize(chunk.size());
+                String sql = "SELECT product_id, name, sku FROM products WHERE product_id IN (" +
+                        InList.placeholders(size) + ")";
+
+                try (PreparedStatement stmt = conn.prepareStatement(sql)) {
+                    InList.bind(stmt, 1, chunk, size);
+
+                    try (ResultSet rs = stmt.executeQuery()) {
+                        while (rs.next()) {
+                            for (OrderLine line : linesByProduct.get(rs.getInt(1))) {
+                                line.setProductName(rs.getString(2));
+                                line.setSku(rs.getString(3));
+                            }
+                        }
+                    }
+                }
+            }
+        }
+    }
 
-            while (rs.next()) {
-                orders.add(mapResultSetToOrder(rs));
+    /**
+     * Look up many orders with chunked IN-list queries, one connection per
+     * shard involved
+     */
+    @Override
+    public Map<Integer, Order> getByIds(Collection<Integer> ids) throws SQLException {
+        Map<Integer, Order> orders = new HashMap<>();
+        Map<Integer, List<Integer>> localIdsByShard = new TreeMap<>();
+        for (List<Integer> chunk : InList.chunks(ids)) {
+            for (Integer id : chunk) {
+                localIdsByShard.computeIfAbsent(OrderShards.shardOf(id), s -> new ArrayList<>())
+                        .add(OrderShards.localId(id));
+            }
+        }
+
+        for (Map.Entry<Integer, List<Integer>> entry : localIdsByShard.entrySet()) {
+            int shard = entry.getKey();
+
+            try (Connection conn = OrderShards.getReadConnection(shard)) {
+                for (List<Integer> chunk : InList.chunks(entry.getValue())) {
+                    int size = InList.paddedSize(chunk.size());
+                    String sql = "SELECT * FROM orders WHERE order_id IN (" + InList.placeholders(size) + ")";
+
+                    try (PreparedStatement stmt = conn.prepareStatement(sql)) {
+                        InList.bind(stmt, 1, chunk, size);
+
+                        try (ResultSet rs = stmt.executeQuery()) {
+                            BeanMapper.Reader<Order> reader = ORDERS.reader(rs);
+                            while (rs.next()) {
+                                Order order = mapResultSetToOrder(rs, reader, shard);
+                                orders.put(order.getOrderId(), order);
+                            }
+                        }
+                    }
+                }
             }
         }
 
         return orders;
     }
 
+    @Override
+    public List<Order> getAll() throws SQLException {
+        String sql = "SELECT * FROM orders ORDER BY order_date DESC, order_id DESC";
+
+        List<List<Order>> perShard = OrderShards.scatter(shard -> {
+            List<Order> orders = new ArrayList<>();
+
+            try (Connection conn = OrderShards.getReadConnection(shard);
+                    Statement stmt = conn.createStatement();
+                    ResultSet rs = stmt.executeQuery(sql)) {
+                BeanMapper.Reader<Order> reader = ORDERS.reader(rs);
+
+                while (rs.next()) {
+                    orders.add(mapResultSetToOrder(rs, reader, shard));
+                }
+            }
+
+            return orders;
+        });
+
+        return OrderShards.mergeSorted(perShard, NEWEST_FIRST);
+    }
+
+    /**
+     * Each shard seeks past the cursor and returns up to limit + 1 rows; the
+     * merged result is cut back to one page.
+     */
+    @Override
+    public Page<Order> page(String afterCursor, int limit) throws SQLException {
+        PageCursor.checkLimit(limit);
+        Object[] after = afterCursor != null
+                ? PageCursor.decode(afterCursor, "orders", Timestamp.class, Integer.class)
+                : null;
+        String sql = after == null
+                ? "SELECT * FROM orders ORDER BY order_date DESC, order_id DESC LIMIT ?"
+                : "SELECT * FROM orders WHERE order_date < ? OR (order_date = ? AND order_id <= ?) " +
+                        "ORDER BY order_date DESC, order_id DESC LIMIT ?";
+
+        List<List<Order>> perShard = OrderShards.scatter(shard -> {
+            List<Order> orders = new ArrayList<>();
+
+            try (Connection conn = OrderShards.getReadConnection(shard);
+                    PreparedStatement stmt = conn.prepareStatement(sql)) {
+
+                int index = 1;
+                if (after != null) {
+                    stmt.setTimestamp(index++, (Timestamp) after[0]);
+                    stmt.setTimestamp(index++, (Timestamp) after[0]);
+                    stmt.setInt(index++, OrderShards.maxLocalIdBelow((Integer) after[1], shard));
+                }
+                stmt.setInt(index, limit + 1);
+
+                try (ResultSet rs = stmt.executeQuery()) {
+                    BeanMapper.Reader<Order> reader = ORDERS.reader(rs);
+                    while (rs.next()) {
+                        orders.add(mapResultSetToOrder(rs, reader, shard));
+                    }
+                }
+            }
+
+            return orders;
+        });
+
+        return PageCursor.page(OrderShards.mergeSorted(perShard, NEWEST_FIRST), limit,
+                o -> PageCursor.encode("orders", o.getOrderDate(), o.getOrderId()));
+    }
+
+    /**
+     * Rows are read one at a time in streaming mode, one streaming connection
+     * per shard, and merged by order_date DESC as they are consumed. Close
+     * the stream to release the connections.
+     */
+    @Override
+    public Stream<Order> streamAll() throws SQLException {
+        String sql = "SELECT * FROM orders ORDER BY order_date DESC, order_id DESC";
+        List<Stream<Order>> perShard = new ArrayList<>();
+
+        try {
+            for (int shard = 0; shard < OrderShards.count(); shard++) {
+                int source = shard;
+                perShard.add(ResultSetStream.open(OrderShards.getStreamingConnection(shard), sql,
+                        ORDERS::reader, (rs, reader) -> mapResultSetToOrder(rs, reader, source)));
+            }
+        } catch (SQLException | RuntimeException e) {
+            ResultSetStream.closeAll(e, perShard);
+            throw e;
+        }
+
+        return ResultSetStream.merge(perShard, NEWEST_FIRST);
+    }
+
+    /**
+     * When order.getVersion() is set, the update only applies if the row
+     * still has that version, and the order's version is advanced on success.
+     *
+     * @return true if the order was updated, false if it does not exist
+     * @throws OptimisticLockException if the order was changed since it was
+     *                                 read
+     */
     @Override
     public boolean update(Order order) throws SQLException {
         String sql = "UPDATE orders SET user_id = ?, order_number = ?, status = ?, total_amount = ?, " +
-                "shipping_address_id = ?, billing_address_id = ?, notes = ? WHERE order_id = ?";
+                "shipping_address_id = ?, billing_address_id = ?, notes = ?, version = version + 1 " +
+                "WHERE order_id = ?" + (order.getVersion() != null ? " AND version = ?" : "");
+        int shard = OrderShards.shardOf(order.getOrderId());
+        if (OrderShards.shardForUser(order.getUserId()) != shard) {
+            throw new IllegalArgumentException("Cannot move an order to a user on another order shard");
+        }
 
-        try (Connection conn = DatabaseConnection.getConnection();
+        try (Connection conn = OrderShards.getConnection(shard);
                 PreparedStatement stmt = conn.prepareStatement(sql)) {
 
-            stmt.setInt(1, order.getUserId());
-            stmt.setString(2, order.getOrderNumber());
-            stmt.setString(3, order.getStatus());
-            stmt.setBigDecimal(4, order.getTotalAmount());
+            int index = ORDER_FIELDS.write(stmt, 1, order);
+            stmt.setInt(index++, OrderShards.localId(order.getOrderId()));
+            if (order.getVersion() != null) {
+                stmt.setInt(index, order.getVersion());
+            }
 
-            if (order.getShippingAddressId() != null) {
-                stmt.setInt(5, order.getShippingAddressId());
-            } else {
-                stmt.setNull(5, Types.INTEGER);
+            if (stmt.executeUpdate() > 0) {
+                if (order.getVersion() != null) {
+                    order.setVersion(order.getVersion() + 1);
+                }
+                return true;
             }
+            RowVersion.checkConflict(conn, "orders", "order_id", OrderShards.localId(order.getOrderId()),
+                    order.getVersion(), "Order " + order.getOrderId());
+            return false;
+        }
+    }
 
-            if (order.getBillingAddressId() != null) {
-                stmt.setInt(6, order.getBillingAddressId());
-            } else {
-                stmt.setNull(6, Types.INTEGER);
+    /**
+     * Move every order in ids that is in fromStatus to toStatus, with one
+     * guarded UPDATE per shard and IN-list chunk. Moving to SHIPPED stamps
+     * shipped_date and moving to DELIVERED stamps delivered_date (and
+     * shipped_date if it was never set); each moved order's version is
+     * advanced.
+     *
+     * Each chunk first locks its orders with SELECT ... FOR UPDATE to learn
+     * which exist and what status they are in, then commits on its own, so
+     * a large wave does not hold its locks until the end. If a chunk fails,
+     * the chunks before it stay committed.
+     *
+     * @return One result per distinct id, in the order given
+     */
+    @Override
+    public List<StatusTransitionResult> transitionStatus(Collection<Integer> ids, String fromStatus,
+            String toStatus) throws SQLException {
+        StringBuilder set = new StringBuilder("status = ?, version = version + 1");
+        if ("SHIPPED".equals(toStatus)) {
+            set.append(", shipped_date = CURRENT_TIMESTAMP");
+        } else if ("DELIVERED".equals(toStatus)) {
+            set.append(", shipped_date = COALESCE(shipped_date, CURRENT_TIMESTAMP), delivered_date = CURRENT_TIMESTAMP");
+        }
+
+        Map<Integer, List<Integer>> localIdsByShard = new TreeMap<>();
+        List<Integer> ordered = new ArrayList<>();
+        for (List<Integer> chunk : InList.chunks(ids)) {
+            for (Integer id : chunk) {
+                ordered.add(id);
+                localIdsByShard.computeIfAbsent(OrderShards.shardOf(id), s -> new ArrayList<>())
+                        .add(OrderShards.localId(id));
             }
+        }
 
-            stmt.setString(7, order.getNotes());
-            stmt.setInt(8, order.getOrderId());
+        Map<Integer, StatusTransitionResult> results = new HashMap<>();
+        for (Map.Entry<Integer, List<Integer>> entry : localIdsByShard.entrySet()) {
+            int shard = entry.getKey();
+            for (List<Integer> chunk : InList.chunks(entry.getValue())) {
+                UnitOfWork.run(() -> transitionChunk(shard, chunk, set.toString(), fromStatus, toStatus, results));
+            }
+        }
 
-            return stmt.executeUpdate() > 0;
+        List<StatusTransitionResult> inOrder = new ArrayList<>(ordered.size());
+        for (Integer id : ordered) {
+            StatusTransitionResult result = results.get(id);
+            inOrder.add(result != null ? result
+                    : new StatusTransitionResult(id, StatusTransitionResult.NOT_FOUND, null));
+        }
+        return inOrder;
+    }
+
+    private void transitionChunk(int shard, List<Integer> localIds, String set, String fromStatus, String toStatus,
+            Map<Integer, StatusTransitionResult> results) throws SQLException {
+        int size = InList.paddedSize(localIds.size());
+        String lockSql = "SELECT order_id, status FROM orders WHERE order_id IN (" + InList.placeholders(size) +
+                ") FOR UPDATE";
+        String updateSql = "UPDATE orders SET " + set + " WHERE order_id IN (" + InList.placeholders(size) +
+                ") AND status = ?";
+
+        try (Connection conn = OrderShards.getConnection(shard)) {
+            boolean anyToMove = false;
+            try (PreparedStatement stmt = conn.prepareStatement(lockSql)) {
+                InList.bind(stmt, 1, localIds, size);
+
+                try (ResultSet rs = stmt.executeQuery()) {
+                    while (rs.next()) {
+                        int id = OrderShards.encode(rs.getInt(1), shard);
+                        String status = rs.getString(2);
+                        boolean moves = fromStatus.equals(status);
+                        anyToMove |= moves;
+                        results.put(id, moves
+                                ? new StatusTransitionResult(id, StatusTransitionResult.TRANSITIONED, toStatus)
+                                : new StatusTransitionResult(id, StatusTransitionResult.WRONG_STATUS, status));
+                    }
+                }
+            }
+
+            if (anyToMove) {
+                try (PreparedStatement stmt = conn.prepareStatement(updateSql)) {
+                    stmt.setString(1, toStatus);
+                    InList.bind(stmt, 2, localIds, size);
+                    stmt.setString(size + 2, fromStatus);
+                    stmt.executeUpdate();
+                }
+            }
         }
     }
 
@@ -125,27 +473,33 @@ public class OrderDAOImpl implements OrderDAO {
     public boolean delete(Integer id) throws SQLException {
         String sql = "DELETE FROM orders WHERE order_id = ?";
 
-        try (Connection conn = DatabaseConnection.getConnection();
+        try (Connection conn = OrderShards.getConnection(OrderShards.shardOf(id));
                 PreparedStatement stmt = conn.prepareStatement(sql)) {
 
-            stmt.setInt(1, id);
+            stmt.setInt(1, OrderShards.localId(id));
             return stmt.executeUpdate() > 0;
         }
     }
 
+    /**
+     * Read in order from idx_orders_user_date on the user's shard, without a
+     * sort
+     */
     @Override
     public List<Order> getByUserId(Integer userId) throws SQLException {
         String sql = "SELECT * FROM orders WHERE user_id = ? ORDER BY order_date DESC";
         List<Order> orders = new ArrayList<>();
+        int shard = OrderShards.shardForUser(userId);
 
-        try (Connection conn = DatabaseConnection.getConnection();
+        try (Connection conn = OrderShards.getReadConnection(shard);
                 PreparedStatement stmt = conn.prepareStatement(sql)) {
 
             stmt.setInt(1, userId);
 
             try (ResultSet rs = stmt.executeQuery()) {
+                BeanMapper.Reader<Order> reader = ORDERS.reader(rs);
                 while (rs.next()) {
-                    orders.add(mapResultSetToOrder(rs));
+                    orders.add(mapResultSetToOrder(rs, reader, shard));
                 }
             }
         }
@@ -153,21 +507,182 @@ public class OrderDAOImpl implements OrderDAO {
         return orders;
     }
 
-    private Order mapResultSetToOrder(ResultSet rs) throws SQLException {
-        Order order = new Order();
-        order.setOrderId(rs.getInt("order_id"));
-        order.setUserId(rs.getInt("user_id"));
-        order.setOrderNumber(rs.getString("order_number"));
-        order.setStatus(rs.getString("status"));
-        order.setTotalAmount(rs.getBigDecimal("total_amount"));
-        order.setShippingAddressId((Integer) rs.getObject("shipping_address_id"));
-        order.setBillingAddressId((Integer) rs.getObject("billing_address_id"));
-        order.setOrderDate(rs.getTimestamp("order_date"));
-        order.setShippedDate(rs.getTimestamp("shipped_date"));
-        order.setDeliveredDate(rs.getTimestamp("delivered_date"));
-        order.setNotes(rs.getString("notes"));
-        order.setCreatedAt(rs.getTimestamp("created_at"));
-        order.setUpdatedAt(rs.getTimestamp("updated_at"));
+    /**
+     * Counted from idx_orders_user_date on the user's shard, without reading any
+     * order rows
+     */
+    @Override
+    public long countByUserId(Integer userId) throws SQLException {
+        String sql = "SELECT COUNT(*) FROM orders WHERE user_id = ?";
+
+        try (Connection conn = OrderShards.getReadConnection(OrderShards.shardForUser(userId));
+                PreparedStatement stmt = conn.prepareStatement(sql)) {
+
+            stmt.setInt(1, userId);
+
+            try (ResultSet rs = stmt.executeQuery()) {
+                rs.next();
+                return rs.getLong(1);
+            }
+        }
+    }
+
+    @Override
+    public OrderStats getStatsByUserId(Integer userId) throws SQLException {
+        String sql = "SELECT COUNT(*), SUM(total_amount), MIN(order_date), MAX(order_date) " +
+                "FROM orders WHERE user_id = ?";
+
+        try (Connection conn = OrderShards.getReadConnection(OrderShards.shardForUser(userId));
+                PreparedStatement stmt = conn.prepareStatement(sql)) {
+
+            stmt.setInt(1, userId);
+
+            try (ResultSet rs = stmt.executeQuery()) {
+                rs.next();
+                return mapResultSetToStats(rs, 1);
+            }
+        }
+    }
+
+    /**
+     * Each shard groups its own orders; the per-shard groups are then added
+     * together. Statuses without orders are left out.
+     *
+     * @return Status to aggregates
+     */
+    @Override
+    public Map<String, OrderStats> getStatsByStatus() throws SQLException {
+        String sql = "SELECT status, COUNT(*), SUM(total_amount), MIN(order_date), MAX(order_date) " +
+                "FROM orders GROUP BY status ORDER BY status";
+
+        List<List<Map.Entry<String, OrderStats>>> perShard = OrderShards.scatter(shard -> {
+            List<Map.Entry<String, OrderStats>> groups = new ArrayList<>();
+
+            try (Connection conn = OrderShards.getReadConnection(shard);
+                    Statement stmt = conn.createStatement();
+                    ResultSet rs = stmt.executeQuery(sql)) {
+
+                while (rs.next()) {
+                    groups.add(Map.entry(rs.getString(1), mapResultSetToStats(rs, 2)));
+                }
+            }
+
+            return groups;
+        });
+
+        Map<String, OrderStats> byStatus = new LinkedHashMap<>();
+        for (List<Map.Entry<String, OrderStats>> groups : perShard) {
+            for (Map.Entry<String, OrderStats> group : groups) {
+                byStatus.merge(group.getKey(), group.getValue(), OrderDAOImpl::combine);
+            }
+        }
+        return byStatus;
+    }
+
+    /**
+     * Add up aggregates from two shards
+     */
+    private static OrderStats combine(OrderStats a, OrderStats b) {
+        return new OrderStats(
+                a.getOrderCount() + b.getOrderCount(),
+                a.getTotalAmount().add(b.getTotalAmount()),
+                earliest(a.getFirstOrderDate(), b.getFirstOrderDate()),
+                latest(a.getLastOrderDate(), b.getLastOrderDate()));
+    }
+
+    private static Timestamp earliest(Timestamp a, Timestamp b) {
+        return a == null ? b : b == null || a.before(b) ? a : b;
+    }
+
+    private static Timestamp latest(Timestamp a, Timestamp b) {
+        return a == null ? b : b == null || a.after(b) ? a : b;
+    }
+
+    /**
+     * Positions of the item, customer and product columns in an order details
+     * result set. Customer and product columns are 0 when the query did not
+     * select them.
+     */
+    private static final class DetailColumns {
+        private final int orderItemId;
+        private final int productId;
+        private final int quantity;
+        private final int unitPrice;
+        private final int subtotal;
+        private final int userId;
+        private final int username;
+        private final int email;
+        private final int firstName;
+        private final int lastName;
+        private final int role;
+        private final int isActive;
+        private final int productName;
+        private final int sku;
+
+        DetailColumns(ResultSet rs) throws SQLException {
+            ColumnIndex columns = ColumnIndex.of(rs);
+            orderItemId = columns.find("order_item_id");
+            productId = columns.find("product_id");
+            quantity = columns.find("quantity");
+            unitPrice = columns.find("unit_price");
+            subtotal = columns.find("subtotal");
+            userId = columns.find("user_id");
+            username = columns.find("username");
+            email = columns.find("email");
+            firstName = columns.find("first_name");
+            lastName = columns.find("last_name");
+            role = columns.find("role");
+            isActive = columns.find("is_active");
+            productName = columns.find("product_name");
+            sku = columns.find("sku");
+        }
+    }
+
+    private UserSummary mapResultSetToCustomer(ResultSet rs, DetailColumns columns) throws SQLException {
+        UserSummary customer = new UserSummary();
+        customer.setUserId(rs.getInt(columns.userId));
+        customer.setUsername(rs.getString(columns.username));
+        customer.setEmail(rs.getString(columns.email));
+        customer.setFirstName(rs.getString(columns.firstName));
+        customer.setLastName(rs.getString(columns.lastName));
+        customer.setRole(rs.getString(columns.role));
+        customer.setIsActive(rs.getBoolean(columns.isActive));
+        return customer;
+    }
+
+    private OrderLine mapResultSetToLine(ResultSet rs, DetailColumns columns, int shard) throws SQLException {
+        OrderLine line = new OrderLine();
+        line.setOrderItemId(OrderShards.encode(rs.getInt(columns.orderItemId), shard));
+        line.setProductId(rs.getInt(columns.productId));
+        line.setQuantity(rs.getInt(columns.quantity));
+        line.setUnitPrice(rs.getBigDecimal(columns.unitPrice));
+        line.setSubtotal(rs.getBigDecimal(columns.subtotal));
+        if (columns.productName > 0) {
+            line.setProductName(rs.getString(columns.productName));
+            line.setSku(rs.getString(columns.sku));
+        }
+        return line;
+    }
+
+    /**
+     * Read a row and turn its shard-local order_id into a global id
+     */
+    private Order mapResultSetToOrder(ResultSet rs, BeanMapper.Reader<Order> reader, int shard) throws SQLException {
+        Order order = reader.read(rs);
+        order.setOrderId(OrderShards.encode(order.getOrderId(), shard));
         return order;
     }
+
+    /**
+     * Map COUNT, SUM(total_amount), MIN(order_date), MAX(order_date) starting
+     * at the given column
+     */
+    private OrderStats mapResultSetToStats(ResultSet rs, int firstColumn) throws SQLException {
+        BigDecimal total = rs.getBigDecimal(firstColumn + 1);
+        return new OrderStats(
+                rs.getLong(firstColumn),
+                total != null ? total : BigDecimal.ZERO,
+                rs.getTimestamp(firstColumn + 2),
+                rs.getTimestamp(firstColumn + 3));
+    }
 }
@@ -1,16 +1,24 @@
 package com.ecommerce.dao;
 
 import com.ecommerce.model.OrderItem;
+import com.ecommerce.model.Page;
 import java.sql.SQLException;
 import java.util.List;
+import java.util.stream.Stream;
 
 public interface OrderItemDAO {
     OrderItem create(OrderItem orderItem) throws SQLException;
 
+    List<OrderItem> createAll(List<OrderItem> orderItems) throws SQLException;
+
     OrderItem getById(Integer id) throws SQLException;
 
     List<OrderItem> getAll() throws SQLException;
 
+    Page<OrderItem> page(String afterCursor, int limit) throws SQLException;
+
+    Stream<OrderItem> streamAll() throws SQLException;
+
     boolean update(OrderItem orderItem) throws SQLException;
 
     boolean delete(Integer id) throws SQLException;
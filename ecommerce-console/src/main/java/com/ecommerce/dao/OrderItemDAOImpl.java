@@ -1,26 +1,45 @@
 package com.ecommerce.dao;
 
 import com.ecommerce.db.DatabaseConnection;
+import com.ecommerce.db.OrderShards;
+import com.ecommerce.db.UnitOfWork;
 import com.ecommerce.model.OrderItem;
+import com.ecommerce.model.Page;
 
+import java.math.BigDecimal;
 import java.sql.*;
 import java.util.ArrayList;
+import java.util.Comparator;
 import java.util.List;
+import java.util.stream.Stream;
+import java.util.Map;
+import java.util.TreeMap;
 
+/**
+ * Order items live on their order's shard (see {@link OrderShards}).
+ */
 public class OrderItemDAOImpl implements OrderItemDAO {
+    private static final BeanMapper<OrderItem> ORDER_ITEMS = BeanMapper.of(OrderItem.class);
+
+    /**
+     * Binds the insert and update columns after order_id, whose local id is
+     * bound by hand
+     */
+    private static final BeanMapper.Writer<OrderItem> ITEM_FIELDS = ORDER_ITEMS.writer(
+            "product_id", "quantity", "unit_price", "subtotal");
+    private static final BeanMapper.Writer<OrderItem> ITEM_FIELDS_WITHOUT_SUBTOTAL = ORDER_ITEMS.writer(
+            "product_id", "quantity", "unit_price");
 
     @Override
     public OrderItem create(OrderItem orderItem) throws SQLException {
         String sql = "INSERT INTO order_items (order_id, product_id, quantity, unit_price, subtotal) VALUES (?, ?, ?, ?, ?)";
+        int shard = OrderShards.shardOf(orderItem.getOrderId());
 
-        try (Connection conn = DatabaseConnection.getConnection();
+        try (Connection conn = OrderShards.getConnection(shard);
                 PreparedStatement stmt = conn.prepareStatement(sql, Statement.RETURN_GENERATED_KEYS)) {
 
-            stmt.setInt(1, orderItem.getOrderId());
-            stmt.setInt(2, orderItem.getProductId());
-            stmt.setInt(3, orderItem.getQuantity());
-            stmt.setBigDecimal(4, orderItem.getUnitPrice());
-            stmt.setBigDecimal(5, orderItem.getSubtotal());
+            stmt.setInt(1, OrderShards.localId(orderItem.getOrderId()));
+            ITEM_FIELDS.write(stmt, 2, orderItem);
 
             int affectedRows = stmt.executeUpdate();
 
@@ -30,7 +49,7 @@ public class OrderItemDAOImpl implements OrderItemDAO {
 
             try (ResultSet generatedKeys = stmt.getGeneratedKeys()) {
                 if (generatedKeys.next()) {
-                    orderItem.setOrderItemId(generatedKeys.getInt(1));
+                    orderItem.setOrderItemId(OrderShards.encode(generatedKeys.getInt(1), shard));
                 } else {
                     throw new SQLException("Creating order item failed, no ID obtained.");
                 }
@@ -40,18 +59,59 @@ public class OrderItemDAOImpl implements OrderItemDAO {
         return orderItem;
     }
 
+    /**
+     * subtotal is left to the database, which computes it from quantity and
+     * unit_price; the value is filled in on the returned items.
+     */
+    @Override
+    public List<OrderItem> createAll(List<OrderItem> orderItems) throws SQLException {
+        String sql = "INSERT INTO order_items (order_id, product_id, quantity, unit_price) VALUES (?, ?, ?, ?)";
+
+        if (orderItems.isEmpty()) {
+            return orderItems;
+        }
+
+        Map<Integer, List<OrderItem>> byShard = new TreeMap<>();
+        for (OrderItem orderItem : orderItems) {
+            byShard.computeIfAbsent(OrderShards.shardOf(orderItem.getOrderId()), s -> new ArrayList<>())
+                    .add(orderItem);
+        }
+
+        UnitOfWork.run(() -> {
+            for (Map.Entry<Integer, List<OrderItem>> entry : byShard.entrySet()) {
+                int shard = entry.getKey();
+                try (Connection conn = OrderShards.getConnection(shard)) {
+                    BatchInsert.insert(conn, sql, entry.getValue(), DatabaseConnection.getBatchSize(),
+                            (stmt, orderItem) -> {
+                                stmt.setInt(1, OrderShards.localId(orderItem.getOrderId()));
+                                ITEM_FIELDS_WITHOUT_SUBTOTAL.write(stmt, 2, orderItem);
+                            },
+                            (orderItem, key) -> orderItem.setOrderItemId(OrderShards.encode(key, shard)),
+                            "order item");
+                }
+            }
+        });
+
+        for (OrderItem orderItem : orderItems) {
+            orderItem.setSubtotal(orderItem.getUnitPrice().multiply(BigDecimal.valueOf(orderItem.getQuantity())));
+        }
+        return orderItems;
+    }
+
     @Override
     public OrderItem getById(Integer id) throws SQLException {
         String sql = "SELECT * FROM order_items WHERE order_item_id = ?";
+        int shard = OrderShards.shardOf(id);
 
-        try (Connection conn = DatabaseConnection.getConnection();
+        try (Connection conn = OrderShards.getReadConnection(shard);
                 PreparedStatement stmt = conn.prepareStatement(sql)) {
 
-            stmt.setInt(1, id);
+            stmt.setInt(1, OrderShards.localId(id));
 
             try (ResultSet rs = stmt.executeQuery()) {
+                BeanMapper.Reader<OrderItem> reader = ORDER_ITEMS.reader(rs);
                 if (rs.next()) {
-                    return mapResultSetToOrderItem(rs);
+                    return mapResultSetToOrderItem(rs, reader, shard);
                 }
             }
         }
@@ -62,33 +122,100 @@ public class OrderItemDAOImpl implements OrderItemDAO {
     @Override
     public List<OrderItem> getAll() throws SQLException {
         String sql = "SELECT * FROM order_items";
-        List<OrderItem> orderItems = new ArrayList<>();
 
-        try (Connection conn = DatabaseConnection.getConnection();
-                Statement stmt = conn.createStatement();
-                ResultSet rs = stmt.executeQuery(sql)) {
+        List<List<OrderItem>> perShard = OrderShards.scatter(shard -> {
+            List<OrderItem> orderItems = new ArrayList<>();
 
-            while (rs.next()) {
-                orderItems.add(mapResultSetToOrderItem(rs));
+            try (Connection conn = OrderShards.getReadConnection(shard);
+                    Statement stmt = conn.createStatement();
+                    ResultSet rs = stmt.executeQuery(sql)) {
+                BeanMapper.Reader<OrderItem> reader = ORDER_ITEMS.reader(rs);
+
+                while (rs.next()) {
+                    orderItems.add(mapResultSetToOrderItem(rs, reader, shard));
+                }
             }
-        }
 
+            return orderItems;
+        });
+
+        List<OrderItem> orderItems = new ArrayList<>();
+        perShard.forEach(orderItems::addAll);
         return orderItems;
     }
 
+    @Override
+    public Page<OrderItem> page(String afterCursor, int limit) throws SQLException {
+        PageCursor.checkLimit(limit);
+        Integer afterId = afterCursor != null
+                ? (Integer) PageCursor.decode(afterCursor, "order_items", Integer.class)[0]
+                : null;
+        String sql = afterId == null
+                ? "SELECT * FROM order_items ORDER BY order_item_id LIMIT ?"
+                : "SELECT * FROM order_items WHERE order_item_id >= ? ORDER BY order_item_id LIMIT ?";
+
+        List<List<OrderItem>> perShard = OrderShards.scatter(shard -> {
+            List<OrderItem> orderItems = new ArrayList<>();
+
+            try (Connection conn = OrderShards.getReadConnection(shard);
+                    PreparedStatement stmt = conn.prepareStatement(sql)) {
+
+                int index = 1;
+                if (afterId != null) {
+                    stmt.setInt(index++, OrderShards.minLocalIdAbove(afterId, shard));
+                }
+                stmt.setInt(index, limit + 1);
+
+                try (ResultSet rs = stmt.executeQuery()) {
+                    BeanMapper.Reader<OrderItem> reader = ORDER_ITEMS.reader(rs);
+                    while (rs.next()) {
+                        orderItems.add(mapResultSetToOrderItem(rs, reader, shard));
+                    }
+                }
+            }
+
+            return orderItems;
+        });
+
+        List<OrderItem> merged = OrderShards.mergeSorted(perShard, Comparator.comparing(OrderItem::getOrderItemId));
+        return PageCursor.page(merged, limit, i -> PageCursor.encode("order_items", i.getOrderItemId()));
+    }
+
+    /**
+     * Rows are read one at a time in streaming mode, shard after shard, each
+     * shard in order_item_id order. Close the stream to release its
+     * connection.
+     */
+    @Override
+    public Stream<OrderItem> streamAll() throws SQLException {
+        String sql = "SELECT * FROM order_items ORDER BY order_item_id";
+
+        return Stream.iterate(0, shard -> shard < OrderShards.count(), shard -> shard + 1)
+                .flatMap(shard -> {
+                    try {
+                        return ResultSetStream.open(OrderShards.getStreamingConnection(shard), sql,
+                                ORDER_ITEMS::reader,
+                                (rs, reader) -> mapResultSetToOrderItem(rs, reader, shard));
+                    } catch (SQLException e) {
+                        throw new UncheckedSQLException(e);
+                    }
+                });
+    }
+
     @Override
     public boolean update(OrderItem orderItem) throws SQLException {
         String sql = "UPDATE order_items SET order_id = ?, product_id = ?, quantity = ?, unit_price = ?, subtotal = ? WHERE order_item_id = ?";
+        int shard = OrderShards.shardOf(orderItem.getOrderItemId());
+        if (OrderShards.shardOf(orderItem.getOrderId()) != shard) {
+            throw new IllegalArgumentException("Cannot move an order item to an order on another order shard");
+        }
 
-        try (Connection conn = DatabaseConnection.getConnection();
+        try (Connection conn = OrderShards.getConnection(shard);
                 PreparedStatement stmt = conn.prepareStatement(sql)) {
 
-            stmt.setInt(1, orderItem.getOrderId());
-            stmt.setInt(2, orderItem.getProductId());
-            stmt.setInt(3, orderItem.getQuantity());
-            stmt.setBigDecimal(4, orderItem.getUnitPrice());
-            stmt.setBigDecimal(5, orderItem.getSubtotal());
-            stmt.setInt(6, orderItem.getOrderItemId());
+            stmt.setInt(1, OrderShards.localId(orderItem.getOrderId()));
+            int index = ITEM_FIELDS.write(stmt, 2, orderItem);
+            stmt.setInt(index, OrderShards.localId(orderItem.getOrderItemId()));
 
             return stmt.executeUpdate() > 0;
         }
@@ -98,29 +225,30 @@ public class OrderItemDAOImpl implements OrderItemDAO {
     public boolean delete(Integer id) throws SQLException {
         String sql = "DELETE FROM order_items WHERE order_item_id = ?";
 
-        try (Connection conn = DatabaseConnection.getConnection();
+        try (Connection conn = OrderShards.getConnection(OrderShards.shardOf(id));
                 PreparedStatement stmt = conn.prepareStatement(sql)) {
 
-            stmt.setInt(1, id);
+            stmt.setInt(1, OrderShards.localId(id));
             return stmt.executeUpdate() > 0;
         }
     }
 
     @Override
     public List<OrderItem> getByOrderId(Integer orderId) throws SQLException {
-        String sql = "SELECT oi.*, p.name as product_name FROM order_items oi " +
-                "JOIN products p ON oi.product_id = p.product_id " +
-                "WHERE oi.order_id = ?";
+        // products lives on the primary, so no join here when orders are sharded
+        String sql = "SELECT * FROM order_items WHERE order_id = ?";
         List<OrderItem> orderItems = new ArrayList<>();
+        int shard = OrderShards.shardOf(orderId);
 
-        try (Connection conn = DatabaseConnection.getConnection();
+        try (Connection conn = OrderShards.getReadConnection(shard);
                 PreparedStatement stmt = conn.prepareStatement(sql)) {
 
-            stmt.setInt(1, orderId);
+            stmt.setInt(1, OrderShards.localId(orderId));
 
             try (ResultSet rs = stmt.executeQuery()) {
+                BeanMapper.Reader<OrderItem> reader = ORDER_ITEMS.reader(rs);
                 while (rs.next()) {
-                    orderItems.add(mapResultSetToOrderItem(rs));
+                    orderItems.add(mapResultSetToOrderItem(rs, reader, shard));
                 }
             }
         }
@@ -128,15 +256,14 @@ public class OrderItemDAOImpl implements OrderItemDAO {
         return orderItems;
     }
 
-    private OrderItem mapResultSetToOrderItem(ResultSet rs) throws SQLException {
-        OrderItem orderItem = new OrderItem();
-        orderItem.setOrderItemId(rs.getInt("order_item_id"));
-        orderItem.setOrderId(rs.getInt("order_id"));
-        orderItem.setProductId(rs.getInt("product_id"));
-        orderItem.setQuantity(rs.getInt("quantity"));
-        orderItem.setUnitPrice(rs.getBigDecimal("unit_price"));
-        orderItem.setSubtotal(rs.getBigDecimal("subtotal"));
-        orderItem.setCreatedAt(rs.getTimestamp("created_at"));
+    /**
+     * Read a row and turn its shard-local ids into global ids
+     */
+    private OrderItem mapResultSetToOrderItem(ResultSet rs, BeanMapper.Reader<OrderItem> reader, int shard)
+            throws SQLException {
+        OrderItem orderItem = reader.read(rs);
+        orderItem.setOrderItemId(OrderShards.encode(orderItem.getOrderItemId(), shard));
+        orderItem.setOrderId(OrderShards.encode(orderItem.getOrderId(), shard));
         return orderItem;
     }
 }
@@ -0,0 +1,135 @@
+package com.ecommerce.dao;
+
+import com.ecommerce.model.Page;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.math.BigDecimal;
+import java.sql.Timestamp;
+import java.util.Base64;
+import java.util.List;
+import java.util.function.Function;
+
+/**
+ * Opaque cursor tokens for keyset pagination.
+ *
+ * A cursor holds the sort key and primary key of the last row on a page,
+ * plus the name of the list it belongs to, serialized and Base64url-encoded.
+ * The next page seeks past those keys with a WHERE predicate that the sort
+ * index can satisfy, so every page costs the same no matter how deep it is.
+ */
+final class PageCursor {
+    private static final byte STRING = 'S';
+    private static final byte INT = 'I';
+    private static final byte TIMESTAMP = 'T';
+    private static final byte DECIMAL = 'N';
+
+    private PageCursor() {
+    }
+
+    /**
+     * @throws IllegalArgumentException if limit is not positive
+     */
+    static void checkLimit(int limit) {
+        if (limit < 1) {
+            throw new IllegalArgumentException("Page limit must be at least 1");
+        }
+    }
+
+    /**
+     * Build a page from rows fetched with LIMIT limit + 1. The extra row only
+     * signals that another page exists.
+     *
+     * @param rows     Rows in page order, at most limit + 1
+     * @param limit    Page size
+     * @param cursorOf Cursor for a row
+     * @return Page of at most limit rows
+     */
+    static <T> Page<T> page(List<T> rows, int limit, Function<T, String> cursorOf) {
+        if (rows.size() <= limit) {
+            return new Page<>(rows, null);
+        }
+        List<T> items = rows.subList(0, limit);
+        return new Page<>(items, cursorOf.apply(items.get(limit - 1)));
+    }
+
+    /**
+     * @param list Name of the list the cursor belongs to
+     * @param keys Sort key values (String, Integer, Timestamp or BigDecimal)
+     * @return Cursor token
+     */
+    static String encode(String list, Object... keys) {
+        try {
+            ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+            DataOutputStream out = new DataOutputStream(bytes);
+            out.writeUTF(list);
+            out.writeByte(keys.length);
+            for (Object key : keys) {
+                if (key instanceof String) {
+                    out.writeByte(STRING);
+                    out.writeUTF((String) key);
+                } else if (key instanceof Integer) {
+                    out.writeByte(INT);
+                    out.writeInt((Integer) key);
+                } else if (key instanceof Timestamp) {
+                    out.writeByte(TIMESTAMP);
+                    out.writeLong(((Timestamp) key).getTime());
+                    out.writeInt(((Timestamp) key).getNanos());
+                } else if (key instanceof BigDecimal) {
+                    out.writeByte(DECIMAL);
+                    out.writeUTF(((BigDecimal) key).toPlainString());
+                } else {
+                    throw new IllegalArgumentException("Unsupported cursor key: " + key);
+                }
+            }
+            out.flush();
+            return Base64.getUrlEncoder().withoutPadding().encodeToString(bytes.toByteArray());
+        } catch (IOException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+
+    /**
+     * @param token Cursor token from a previous page
+     * @param list  Name of the list being paged
+     * @param types Expected key types
+     * @return Key values, in the order they were encoded
+     * @throws IllegalArgumentException if the token is malformed or belongs to
+     *                                  another list
+     */
+    static Object[] decode(String token, String list, Class<?>... types) {
+        try {
+            DataInputStream in = new DataInputStream(
+                    new ByteArrayInputStream(Base64.getUrlDecoder().decode(token)));
+            if (!in.readUTF().equals(list) || in.readByte() != types.length) {
+                throw new IllegalArgumentException("Invalid page cursor");
+            }
+            Object[] keys = new Object[types.length];
+            for (int i = 0; i < types.length; i++) {
+                byte tag = in.readByte();
+                if (types[i] == String.class && tag == STRING) {
+                    keys[i] = in.readUTF();
+                } else if (types[i] == Integer.class && tag == INT) {
+                    keys[i] = in.readInt();
+                } else if (types[i] == Timestamp.class && tag == TIMESTAMP) {
+                    Timestamp timestamp = new Timestamp(in.readLong());
+                    timestamp.setNanos(in.readInt());
+                    keys[i] = timestamp;
+                } else if (types[i] == BigDecimal.class && tag == DECIMAL) {
+                    keys[i] = new BigDecimal(in.readUTF());
+                } else {
+                    throw new IllegalArgumentException("Invalid page cursor");
+                }
+            }
+            if (in.available() > 0) {
+                throw new IllegalArgumentException("Invalid page cursor");
+            }
+            return keys;
+        } catch (IOException | IllegalArgumentException e) {
+            throw new IllegalArgumentException("Invalid page cursor", e);
+        }
+    }
+}
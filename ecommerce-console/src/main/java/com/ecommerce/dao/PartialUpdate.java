@@ -0,0 +1,101 @@
+package com.ecommerce.dao;
+
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.SQLException;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Builds an UPDATE that writes only the columns a caller supplied.
+ *
+ * Columns whose value is null are left out, so a PATCH that changes a price
+ * does not rewrite the rest of the row. Existence is taken from the
+ * update count: Connector/J reports matched rows by default, so a row whose
+ * values did not change still counts.
+ */
+final class PartialUpdate {
+    private final String table;
+    private final String idColumn;
+    private final List<String> columns = new ArrayList<>();
+    private final List<Object> values = new ArrayList<>();
+    private boolean versioned;
+    private Integer expectedVersion;
+    private String entity;
+
+    PartialUpdate(String table, String idColumn) {
+        this.table = table;
+        this.idColumn = idColumn;
+    }
+
+    /**
+     * Write column = value, unless value is null
+     */
+    PartialUpdate set(String column, Object value) {
+        if (value != null) {
+            columns.add(column);
+            values.add(value);
+        }
+        return this;
+    }
+
+    /**
+     * Advance the row's version column, and when expectedVersion is set,
+     * only update the row if it still has that version (see
+     * {@link RowVersion})
+     *
+     * @param entity Row description for a conflict error, e.g. "Product 7"
+     */
+    PartialUpdate versioned(Integer expectedVersion, String entity) {
+        this.versioned = true;
+        this.expectedVersion = expectedVersion;
+        this.entity = entity;
+        return this;
+    }
+
+    /**
+     * @param conn Connection to run the update on
+     * @param id   Primary key of the row to update
+     * @return true if the row exists
+     * @throws IllegalArgumentException if no column was set
+     * @throws OptimisticLockException  if the row has moved past the expected
+     *                                  version
+     */
+    boolean execute(Connection conn, Integer id) throws SQLException {
+        if (columns.isEmpty()) {
+            throw new IllegalArgumentException("No fields to update");
+        }
+
+        StringBuilder sql = new StringBuilder("UPDATE ").append(table).append(" SET ");
+        for (int i = 0; i < columns.size(); i++) {
+            if (i > 0) {
+                sql.append(", ");
+            }
+            sql.append(columns.get(i)).append(" = ?");
+        }
+        if (versioned) {
+            sql.append(", version = version + 1");
+        }
+        sql.append(" WHERE ").append(idColumn).append(" = ?");
+        if (expectedVersion != null) {
+            sql.append(" AND version = ?");
+        }
+
+        try (PreparedStatement stmt = conn.prepareStatement(sql.toString())) {
+            int index = 1;
+            for (Object value : values) {
+                stmt.setObject(index++, value);
+            }
+            stmt.setInt(index++, id);
+            if (expectedVersion != null) {
+                stmt.setInt(index, expectedVersion);
+            }
+
+            if (stmt.executeUpdate() > 0) {
+                return true;
+            }
+            RowVersion.checkConflict(conn, table, idColumn, id, expectedVersion, entity);
+            return false;
+        }
+    }
+}
@@ -1,19 +1,48 @@
 package com.ecommerce.dao;
 
 import com.ecommerce.model.Product;
+import com.ecommerce.model.Page;
+import com.ecommerce.model.ProductSummary;
+import com.ecommerce.model.UpsertBatchResult;
 import java.sql.SQLException;
+import java.util.Collection;
 import java.util.List;
+import java.util.Map;
+import java.util.stream.Stream;
 
 public interface ProductDAO {
     Product create(Product product) throws SQLException;
 
+    List<Product> createAll(List<Product> products) throws SQLException;
+
+    List<UpsertBatchResult> upsertBySku(List<Product> products) throws SQLException;
+
     Product getById(Integer id) throws SQLException;
 
+    Map<Integer, Product> getByIds(Collection<Integer> ids) throws SQLException;
+
     List<Product> getAll() throws SQLException;
 
+    Page<Product> page(String afterCursor, int limit) throws SQLException;
+
+    List<ProductSummary> getAllSummaries() throws SQLException;
+
+    Page<ProductSummary> pageSummaries(String afterCursor, int limit) throws SQLException;
+
+    Stream<Product> streamAll() throws SQLException;
+
     boolean update(Product product) throws SQLException;
 
+    boolean patch(Integer id, Product changes) throws SQLException;
+
     boolean delete(Integer id) throws SQLException;
 
+    boolean decrementStock(Integer productId, int quantity) throws SQLException;
+
     List<Product> getByCategory(Integer categoryId) throws SQLException;
+
+    List<ProductSummary> getSummariesByCategory(Integer categoryId) throws SQLException;
+
+    Page<ProductSummary> search(String query, Integer categoryId, Boolean active, String afterCursor, int limit)
+            throws SQLException;
 }
@@ -1,13 +1,38 @@
 package com.ecommerce.dao;
 
 import com.ecommerce.db.DatabaseConnection;
+import com.ecommerce.db.UnitOfWork;
+import com.ecommerce.model.Page;
 import com.ecommerce.model.Product;
+import com.ecommerce.model.ProductSummary;
+import com.ecommerce.model.UpsertBatchResult;
 
+import java.math.BigDecimal;
 import java.sql.*;
 import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
 import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeSet;
+import java.util.stream.Stream;
 
 public class ProductDAOImpl implements ProductDAO {
+    /**
+     * Columns read by list queries; the description TEXT column is left to
+     * single-product fetches.
+     */
+    private static final String SUMMARY_COLUMNS = "product_id, category_id, name, price, stock, sku, is_active";
+
+    private static final BeanMapper<Product> PRODUCTS = BeanMapper.of(Product.class);
+    private static final BeanMapper<ProductSummary> SUMMARIES = BeanMapper.of(ProductSummary.class);
+
+    /**
+     * Binds the insert and update columns, in this order
+     */
+    private static final BeanMapper.Writer<Product> PRODUCT_FIELDS = PRODUCTS.writer(
+            "category_id", "name", "description", "price", "stock", "sku", "is_active");
 
     @Override
     public Product create(Product product) throws SQLException {
@@ -16,13 +41,8 @@ public class ProductDAOImpl implements ProductDAO {
         try (Connection conn = DatabaseConnection.getConnection();
                 PreparedStatement stmt = conn.prepareStatement(sql, Statement.RETURN_GENERATED_KEYS)) {
 
-            stmt.setInt(1, product.getCategoryId());
-            stmt.setString(2, product.getName());
-            stmt.setString(3, product.getDescription());
-            stmt.setBigDecimal(4, product.getPrice());
-            stmt.setInt(5, product.getStock());
-            stmt.setString(6, product.getSku());
-            stmt.setBoolean(7, product.getIsActive() != null ? product.getIsActive() : true);
+            defaultActive(product);
+            PRODUCT_FIELDS.write(stmt, 1, product);
 
             int affectedRows = stmt.executeUpdate();
 
@@ -33,6 +53,7 @@ public class ProductDAOImpl implements ProductDAO {
             try (ResultSet generatedKeys = stmt.getGeneratedKeys()) {
                 if (generatedKeys.next()) {
                     product.setProductId(generatedKeys.getInt(1));
+                    product.setVersion(0);
                 } else {
                     throw new SQLException("Creating product failed, no ID obtained.");
                 }
@@ -42,18 +63,120 @@ public class ProductDAOImpl implements ProductDAO {
         return product;
     }
 
+    @Override
+    public List<Product> createAll(List<Product> products) throws SQLException {
+        String sql = "INSERT INTO products (category_id, name, description, price, stock, sku, is_active) VALUES (?, ?, ?, ?, ?, ?, ?)";
+
+        if (products.isEmpty()) {
+            return products;
+        }
+
+        UnitOfWork.run(() -> {
+            try (Connection conn = DatabaseConnection.getConnection()) {
+                BatchInsert.insert(conn, sql, products, DatabaseConnection.getBatchSize(), (stmt, product) -> {
+                    defaultActive(product);
+                    PRODUCT_FIELDS.write(stmt, 1, product);
+                }, Product::setProductId, "product");
+            }
+        });
+
+        return products;
+    }
+
+    /**
+     * Insert new products and update existing ones, matched on the unique
+     * SKU. Rows are sent in JDBC batches of DB_BATCH_SIZE and each batch
+     * commits on its own, so a catalog-sized feed does not hold its locks
+     * for the whole run; if a batch fails, the batches before it stay
+     * committed.
+     *
+     * Existing rows get the new category, name, price and stock; their
+     * description is kept when the incoming one is null, and is_active is
+     * left as it is. To tell inserts from updates, each batch first locks
+     * the rows for its SKUs with one SELECT ... FOR UPDATE per IN-list chunk.
+     *
+     * @return One result per batch, in order
+     */
+    @Override
+    public List<UpsertBatchResult> upsertBySku(List<Product> products) throws SQLException {
+        String sql = "INSERT INTO products (category_id, name, description, price, stock, sku, is_active) " +
+                "VALUES (?, ?, ?, ?, ?, ?, ?) AS incoming " +
+                "ON DUPLICATE KEY UPDATE category_id = incoming.category_id, name = incoming.name, " +
+                "description = COALESCE(incoming.description, description), " +
+                "price = incoming.price, stock = incoming.stock, version = version + 1";
+        List<UpsertBatchResult> results = new ArrayList<>();
+        int batchSize = DatabaseConnection.getBatchSize();
+
+        for (int start = 0; start < products.size(); start += batchSize) {
+            List<Product> batch = products.subList(start, Math.min(start + batchSize, products.size()));
+            int batchNumber = results.size() + 1;
+            results.add(UnitOfWork.execute(() -> upsertBatch(sql, batch, batchNumber)));
+        }
+
+        return results;
+    }
+
+    private UpsertBatchResult upsertBatch(String sql, List<Product> batch, int batchNumber) throws SQLException {
+        try (Connection conn = DatabaseConnection.getConnection()) {
+            Set<String> existing = lockExistingSkus(conn, batch);
+            int inserted = 0;
+
+            try (PreparedStatement stmt = conn.prepareStatement(sql)) {
+                for (Product product : batch) {
+                    defaultActive(product);
+                    PRODUCT_FIELDS.write(stmt, 1, product);
+                    stmt.addBatch();
+
+                    // A SKU repeated within the feed inserts once, then updates
+                    if (existing.add(product.getSku())) {
+                        inserted++;
+                    }
+                }
+                stmt.executeBatch();
+            }
+
+            return new UpsertBatchResult(batchNumber, batch.size(), inserted, batch.size() - inserted);
+        }
+    }
+
+    /**
+     * Lock the products whose SKUs appear in a batch and return those SKUs.
+     * The set ignores case, like the column's collation.
+     */
+    private Set<String> lockExistingSkus(Connection conn, List<Product> batch) throws SQLException {
+        Set<String> existing = new TreeSet<>(String.CASE_INSENSITIVE_ORDER);
+
+        for (List<String> chunk : InList.chunks(batch.stream().map(Product::getSku).toList())) {
+            int size = InList.paddedSize(chunk.size());
+            String sql = "SELECT sku FROM products WHERE sku IN (" + InList.placeholders(size) + ") FOR UPDATE";
+
+            try (PreparedStatement stmt = conn.prepareStatement(sql)) {
+                InList.bindStrings(stmt, 1, chunk, size);
+
+                try (ResultSet rs = stmt.executeQuery()) {
+                    while (rs.next()) {
+                        existing.add(rs.getString(1));
+                    }
+                }
+            }
+        }
+
+        return existing;
+    }
+
     @Override
     public Product getById(Integer id) throws SQLException {
         String sql = "SELECT * FROM products WHERE product_id = ?";
 
-        try (Connection conn = DatabaseConnection.getConnection();
+        try (Connection conn = DatabaseConnection.getReadConnection();
                 PreparedStatement stmt = conn.prepareStatement(sql)) {
 
             stmt.setInt(1, id);
 
             try (ResultSet rs = stmt.executeQuery()) {
+                BeanMapper.Reader<Product> reader = PRODUCTS.reader(rs);
                 if (rs.next()) {
-                    return mapResultSetToProduct(rs);
+                    return reader.read(rs);
                 }
             }
         }
@@ -61,40 +184,214 @@ public class ProductDAOImpl implements ProductDAO {
         return null;
     }
 
+    /**
+     * Look up many products with chunked IN-list queries on one connection
+     */
+    @Override
+    public Map<Integer, Product> getByIds(Collection<Integer> ids) throws SQLException {
+        Map<Integer, Product> products = new HashMap<>();
+        List<List<Integer>> chunks = InList.chunks(ids);
+        if (chunks.isEmpty()) {
+            return products;
+        }
+
+        try (Connection conn = DatabaseConnection.getReadConnection()) {
+            for (List<Integer> chunk : chunks) {
+                int size = InList.paddedSize(chunk.size());
+                String sql = "SELECT * FROM products WHERE product_id IN (" + InList.placeholders(size) + ")";
+
+                try (PreparedStatement stmt = conn.prepareStatement(sql)) {
+                    InList.bind(stmt, 1, chunk, size);
+
+                    try (ResultSet rs = stmt.executeQuery()) {
+                        BeanMapper.Reader<Product> reader = PRODUCTS.reader(rs);
+                        while (rs.next()) {
+                            Product product = reader.read(rs);
+                            products.put(product.getProductId(), product);
+                        }
+                    }
+                }
+            }
+        }
+
+        return products;
+    }
+
     @Override
     public List<Product> getAll() throws SQLException {
         String sql = "SELECT * FROM products ORDER BY name";
         List<Product> products = new ArrayList<>();
 
-        try (Connection conn = DatabaseConnection.getConnection();
+        try (Connection conn = DatabaseConnection.getReadConnection();
                 Statement stmt = conn.createStatement();
                 ResultSet rs = stmt.executeQuery(sql)) {
+            BeanMapper.Reader<Product> reader = PRODUCTS.reader(rs);
 
             while (rs.next()) {
-                products.add(mapResultSetToProduct(rs));
+                products.add(reader.read(rs));
             }
         }
 
         return products;
     }
 
+    @Override
+    public Page<Product> page(String afterCursor, int limit) throws SQLException {
+        List<Product> products = pageRows("*", afterCursor, limit, PRODUCTS);
+        return PageCursor.page(products, limit,
+                p -> PageCursor.encode("products", p.getName(), p.getProductId()));
+    }
+
+    @Override
+    public List<ProductSummary> getAllSummaries() throws SQLException {
+        String sql = "SELECT " + SUMMARY_COLUMNS + " FROM products ORDER BY name";
+        List<ProductSummary> products = new ArrayList<>();
+
+        try (Connection conn = DatabaseConnection.getReadConnection();
+                Statement stmt = conn.createStatement();
+                ResultSet rs = stmt.executeQuery(sql)) {
+            BeanMapper.Reader<ProductSummary> reader = SUMMARIES.reader(rs);
+
+            while (rs.next()) {
+                products.add(reader.read(rs));
+            }
+        }
+
+        return products;
+    }
+
+    /**
+     * Same order and cursors as page(), so clients can switch between the
+     * two without losing their place.
+     */
+    @Override
+    public Page<ProductSummary> pageSummaries(String afterCursor, int limit) throws SQLException {
+        List<ProductSummary> products = pageRows(SUMMARY_COLUMNS, afterCursor, limit, SUMMARIES);
+        return PageCursor.page(products, limit,
+                p -> PageCursor.encode("products", p.getName(), p.getProductId()));
+    }
+
+    /**
+     * Fetch up to limit + 1 rows of one page in (name, product_id) order
+     *
+     * @param select Select list
+     * @param mapper Mapper for the selected columns
+     */
+    private <T> List<T> pageRows(String select, String afterCursor, int limit, BeanMapper<T> mapper)
+            throws SQLException {
+        PageCursor.checkLimit(limit);
+        List<T> rows = new ArrayList<>();
+
+        if (afterCursor == null) {
+            String sql = "SELECT " + select + " FROM products ORDER BY name, product_id LIMIT ?";
+
+            try (Connection conn = DatabaseConnection.getReadConnection();
+                    PreparedStatement stmt = conn.prepareStatement(sql)) {
+
+                stmt.setInt(1, limit + 1);
+
+                try (ResultSet rs = stmt.executeQuery()) {
+                    BeanMapper.Reader<T> reader = mapper.reader(rs);
+                    while (rs.next()) {
+                        rows.add(reader.read(rs));
+                    }
+                }
+            }
+        } else {
+            Object[] after = PageCursor.decode(afterCursor, "products", String.class, Integer.class);
+            String sql = "SELECT " + select + " FROM products WHERE name > ? OR (name = ? AND product_id > ?) " +
+                    "ORDER BY name, product_id LIMIT ?";
+
+            try (Connection conn = DatabaseConnection.getReadConnection();
+                    PreparedStatement stmt = conn.prepareStatement(sql)) {
+
+                stmt.setString(1, (String) after[0]);
+                stmt.setString(2, (String) after[0]);
+                stmt.setInt(3, (Integer) after[1]);
+                stmt.setInt(4, limit + 1);
+
+                try (ResultSet rs = stmt.executeQuery()) {
+                    BeanMapper.Reader<T> reader = mapper.reader(rs);
+                    while (rs.next()) {
+                        rows.add(reader.read(rs));
+                    }
+                }
+            }
+        }
+
+        return rows;
+    }
+
+    /**
+     * Rows are read one at a time in streaming mode; close the stream to
+     * release its connection.
+     */
+    @Override
+    public Stream<Product> streamAll() throws SQLException {
+        String sql = "SELECT * FROM products ORDER BY name";
+
+        return ResultSetStream.open(DatabaseConnection.getStreamingConnection(), sql,
+                PRODUCTS::reader, (rs, reader) -> reader.read(rs));
+    }
+
+    /**
+     * When product.getVersion() is set, the update only applies if the row
+     * still has that version, and the product's version is advanced on
+     * success.
+     *
+     * @return true if the product was updated, false if it does not exist
+     * @throws OptimisticLockException if the product was changed since it was
+     *                                 read
+     */
     @Override
     public boolean update(Product product) throws SQLException {
-        String sql = "UPDATE products SET category_id = ?, name = ?, description = ?, price = ?, stock = ?, sku = ?, is_active = ? WHERE product_id = ?";
+        String sql = "UPDATE products SET category_id = ?, name = ?, description = ?, price = ?, stock = ?, sku = ?, " +
+                "is_active = ?, version = version + 1 WHERE product_id = ?" +
+                (product.getVersion() != null ? " AND version = ?" : "");
 
         try (Connection conn = DatabaseConnection.getConnection();
                 PreparedStatement stmt = conn.prepareStatement(sql)) {
 
-            stmt.setInt(1, product.getCategoryId());
-            stmt.setString(2, product.getName());
-            stmt.setString(3, product.getDescription());
-            stmt.setBigDecimal(4, product.getPrice());
-            stmt.setInt(5, product.getStock());
-            stmt.setString(6, product.getSku());
-            stmt.setBoolean(7, product.getIsActive());
-            stmt.setInt(8, product.getProductId());
+            int index = PRODUCT_FIELDS.write(stmt, 1, product);
+            stmt.setInt(index++, product.getProductId());
+            if (product.getVersion() != null) {
+                stmt.setInt(index, product.getVersion());
+            }
 
-            return stmt.executeUpdate() > 0;
+            if (stmt.executeUpdate() > 0) {
+                if (product.getVersion() != null) {
+                    product.setVersion(product.getVersion() + 1);
+                }
+                return true;
+            }
+            RowVersion.checkConflict(conn, "products", "product_id", product.getProductId(),
+                    product.getVersion(), "Product " + product.getProductId());
+            return false;
+        }
+    }
+
+    /**
+     * Write only the non-null fields of changes. A non-null version makes the
+     * update conditional on the row still having that version.
+     *
+     * @return true if the product exists
+     * @throws OptimisticLockException if the product was changed since that
+     *                                 version
+     */
+    @Override
+    public boolean patch(Integer id, Product changes) throws SQLException {
+        PartialUpdate update = new PartialUpdate("products", "product_id")
+                .set("category_id", changes.getCategoryId())
+                .set("name", changes.getName())
+                .set("description", changes.getDescription())
+                .set("price", changes.getPrice())
+                .set("stock", changes.getStock())
+                .set("sku", changes.getSku())
+                .set("is_active", changes.getIsActive())
+                .versioned(changes.getVersion(), "Product " + id);
+
+        try (Connection conn = DatabaseConnection.getConnection()) {
+            return update.execute(conn, id);
         }
     }
 
@@ -110,6 +407,50 @@ public class ProductDAOImpl implements ProductDAO {
         }
     }
 
+    /**
+     * Take stock for a sale with one guarded UPDATE, and record a SALE row in
+     * inventory_logs in the same transaction. The row lock taken by the
+     * UPDATE serializes concurrent sales of the same product, so stock can
+     * never go negative and no sale is lost.
+     *
+     * @return true if the stock was decremented, false if the product does
+     *         not exist or has less than quantity in stock
+     */
+    @Override
+    public boolean decrementStock(Integer productId, int quantity) throws SQLException {
+        String sql = "UPDATE products SET stock = stock - ?, version = version + 1 WHERE product_id = ? AND stock >= ?";
+        String logSql = "INSERT INTO inventory_logs (product_id, change_type, quantity_change) VALUES (?, 'SALE', ?)";
+
+        if (quantity <= 0) {
+            throw new IllegalArgumentException("Quantity must be positive");
+        }
+
+        return UnitOfWork.execute(() -> {
+            try (Connection conn = DatabaseConnection.getConnection()) {
+                try (PreparedStatement stmt = conn.prepareStatement(sql)) {
+                    stmt.setInt(1, quantity);
+                    stmt.setInt(2, productId);
+                    stmt.setInt(3, quantity);
+
+                    if (stmt.executeUpdate() == 0) {
+                        return false;
+                    }
+                }
+
+                try (PreparedStatement stmt = conn.prepareStatement(logSql)) {
+                    stmt.setInt(1, productId);
+                    stmt.setInt(2, -quantity);
+                    stmt.executeUpdate();
+                }
+            }
+            return true;
+        });
+    }
+
+    /**
+     * Read in name order from idx_products_category_active_name, without a
+     * sort
+     */
     @Override
     public List<Product> getByCategory(Integer categoryId) throws SQLException {
         String sql = "SELECT p.*, c.name as category_name FROM products p " +
@@ -118,14 +459,15 @@ public class ProductDAOImpl implements ProductDAO {
                 "ORDER BY p.name";
         List<Product> products = new ArrayList<>();
 
-        try (Connection conn = DatabaseConnection.getConnection();
+        try (Connection conn = DatabaseConnection.getReadConnection();
                 PreparedStatement stmt = conn.prepareStatement(sql)) {
 
             stmt.setInt(1, categoryId);
 
             try (ResultSet rs = stmt.executeQuery()) {
+                BeanMapper.Reader<Product> reader = PRODUCTS.reader(rs);
                 while (rs.next()) {
-                    products.add(mapResultSetToProduct(rs));
+                    products.add(reader.read(rs));
                 }
             }
         }
@@ -133,18 +475,115 @@ public class ProductDAOImpl implements ProductDAO {
         return products;
     }
 
-    private Product mapResultSetToProduct(ResultSet rs) throws SQLException {
-        Product product = new Product();
-        product.setProductId(rs.getInt("product_id"));
-        product.setCategoryId(rs.getInt("category_id"));
-        product.setName(rs.getString("name"));
-        product.setDescription(rs.getString("description"));
-        product.setPrice(rs.getBigDecimal("price"));
-        product.setStock(rs.getInt("stock"));
-        product.setSku(rs.getString("sku"));
-        product.setIsActive(rs.getBoolean("is_active"));
-        product.setCreatedAt(rs.getTimestamp("created_at"));
-        product.setUpdatedAt(rs.getTimestamp("updated_at"));
-        return product;
+    @Override
+    public List<ProductSummary> getSummariesByCategory(Integer categoryId) throws SQLException {
+        String sql = "SELECT " + SUMMARY_COLUMNS + " FROM products " +
+                "WHERE category_id = ? AND is_active = TRUE " +
+                "ORDER BY name";
+        List<ProductSummary> products = new ArrayList<>();
+
+        try (Connection conn = DatabaseConnection.getReadConnection();
+                PreparedStatement stmt = conn.prepareStatement(sql)) {
+
+            stmt.setInt(1, categoryId);
+
+            try (ResultSet rs = stmt.executeQuery()) {
+                BeanMapper.Reader<ProductSummary> reader = SUMMARIES.reader(rs);
+                while (rs.next()) {
+                    products.add(reader.read(rs));
+                }
+            }
+        }
+
+        return products;
+    }
+
+    /**
+     * Full-text search over name and description through
+     * ft_products_name_description, in natural language mode. Results are
+     * ordered by relevance, then product_id, and paged on that pair; the
+     * cursor only fits the same query and filters. Relevance is cast to a
+     * six-place decimal so the cursor holds the exact value the query
+     * compares and ties on the floating-point score page correctly.
+     *
+     * @param categoryId Only this category, or null for all
+     * @param active     Only products with this is_active, or null for all
+     */
+    @Override
+    public Page<ProductSummary> search(String query, Integer categoryId, Boolean active, String afterCursor,
+            int limit) throws SQLException {
+        PageCursor.checkLimit(limit);
+        String list = "product_search|" + query + "|" + categoryId + "|" + active;
+        Object[] after = afterCursor != null ? PageCursor.decode(afterCursor, list, BigDecimal.class, Integer.class) : null;
+
+        StringBuilder sql = new StringBuilder("SELECT ").append(SUMMARY_COLUMNS)
+                .append(", CAST(MATCH(name, description) AGAINST (?) AS DECIMAL(24, 6)) AS relevance ")
+                .append("FROM products ")
+                .append("WHERE MATCH(name, description) AGAINST (?)");
+        if (categoryId != null) {
+            sql.append(" AND category_id = ?");
+        }
+        if (active != null) {
+            sql.append(" AND is_active = ?");
+        }
+        if (after != null) {
+            sql.append(" HAVING relevance < ? OR (relevance = ? AND product_id > ?)");
+        }
+        sql.append(" ORDER BY relevance DESC, product_id LIMIT ?");
+        List<SearchHit> hits = new ArrayList<>();
+
+        try (Connection conn = DatabaseConnection.getReadConnection();
+                PreparedStatement stmt = conn.prepareStatement(sql.toString())) {
+
+            int index = 1;
+            stmt.setString(index++, query);
+            stmt.setString(index++, query);
+            if (categoryId != null) {
+                stmt.setInt(index++, categoryId);
+            }
+            if (active != null) {
+                stmt.setBoolean(index++, active);
+            }
+            if (after != null) {
+                stmt.setBigDecimal(index++, (BigDecimal) after[0]);
+                stmt.setBigDecimal(index++, (BigDecimal) after[0]);
+                stmt.setInt(index++, (Integer) after[1]);
+            }
+            stmt.setInt(index, limit + 1);
+
+            try (ResultSet rs = stmt.executeQuery()) {
+                BeanMapper.Reader<ProductSummary> reader = SUMMARIES.reader(rs);
+                int relevance = rs.findColumn("relevance");
+                while (rs.next()) {
+                    hits.add(new SearchHit(reader.read(rs), rs.getBigDecimal(relevance)));
+                }
+            }
+        }
+
+        Page<SearchHit> page = PageCursor.page(hits, limit,
+                h -> PageCursor.encode(list, h.relevance, h.product.getProductId()));
+        return new Page<>(page.getItems().stream().map(h -> h.product).toList(), page.getNextCursor());
+    }
+
+    /**
+     * A search result with the score it is ordered by
+     */
+    private static final class SearchHit {
+        private final ProductSummary product;
+        private final BigDecimal relevance;
+
+        SearchHit(ProductSummary product, BigDecimal relevance) {
+            this.product = product;
+            this.relevance = relevance;
+        }
+    }
+
+    /**
+     * New products are active unless the caller said otherwise
+     */
+    private static void defaultActive(Product product) {
+        if (product.getIsActive() == null) {
+            product.setIsActive(true);
+        }
     }
 }
@@ -0,0 +1,202 @@
+package com.ecommerce.dao;
+
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.Iterator;
+import java.util.List;
+import java.util.NoSuchElementException;
+import java.util.PriorityQueue;
+import java.util.Spliterator;
+import java.util.Spliterators;
+import java.util.function.Consumer;
+import java.util.stream.Stream;
+import java.util.stream.StreamSupport;
+
+/**
+ * Lazily mapped query results for the DAOs' stream methods.
+ *
+ * Statements use MySQL's row-streaming mode (forward-only, read-only, fetch
+ * size Integer.MIN_VALUE), so the driver hands over one row at a time instead
+ * of buffering the whole result. Each row is mapped only when the stream
+ * asks for it. The stream owns its statement and connection and releases
+ * them when it is closed; callers must close it, typically with
+ * try-with-resources.
+ *
+ * A streaming connection cannot run other statements until the result is
+ * closed, so streams never use a {@link com.ecommerce.db.UnitOfWork}'s shared
+ * connection.
+ */
+final class ResultSetStream {
+
+    /**
+     * Resolves column positions once from a result set's metadata
+     */
+    @FunctionalInterface
+    interface ColumnResolver<C> {
+        C resolve(ResultSet rs) throws SQLException;
+    }
+
+    /**
+     * Maps the current row of a result set using resolved column positions
+     */
+    @FunctionalInterface
+    interface RowMapper<C, T> {
+        T map(ResultSet rs, C columns) throws SQLException;
+    }
+
+    private ResultSetStream() {
+    }
+
+    /**
+     * Run a query in streaming mode
+     *
+     * @param conn   Connection the stream takes ownership of
+     * @param sql      Query without parameters
+     * @param resolver Resolves column positions for the result set
+     * @param mapper   Maps each row
+     * @return Stream of mapped rows; closing it closes the connection
+     * @throws SQLException if the query fails (the connection is closed)
+     */
+    static <C, T> Stream<T> open(Connection conn, String sql, ColumnResolver<C> resolver,
+            RowMapper<C, T> mapper) throws SQLException {
+        PreparedStatement stmt = null;
+        ResultSet rs = null;
+        C columns;
+        try {
+            stmt = conn.prepareStatement(sql, ResultSet.TYPE_FORWARD_ONLY, ResultSet.CONCUR_READ_ONLY);
+            stmt.setFetchSize(Integer.MIN_VALUE);
+            rs = stmt.executeQuery();
+            columns = resolver.resolve(rs);
+        } catch (SQLException | RuntimeException e) {
+            closeAll(e, rs, stmt, conn);
+            throw e;
+        }
+
+        PreparedStatement statement = stmt;
+        ResultSet results = rs;
+        Spliterator<T> rows = new Spliterators.AbstractSpliterator<T>(Long.MAX_VALUE,
+                Spliterator.ORDERED | Spliterator.NONNULL) {
+            @Override
+            public boolean tryAdvance(Consumer<? super T> action) {
+                try {
+                    if (!results.next()) {
+                        return false;
+                    }
+                    action.accept(mapper.map(results, columns));
+                    return true;
+                } catch (SQLException e) {
+                    throw new UncheckedSQLException(e);
+                }
+            }
+        };
+        return StreamSupport.stream(rows, false).onClose(() -> {
+            SQLException failure = closeAll(null, results, statement, conn);
+            if (failure != null) {
+                throw new UncheckedSQLException(failure);
+            }
+        });
+    }
+
+    /**
+     * Merge streams that are each already sorted, pulling one row at a time
+     * from each. Closing the merged stream closes all of them.
+     *
+     * @param streams Sorted streams
+     * @param order   Order the streams are sorted in
+     * @return Merged stream
+     */
+    static <T> Stream<T> merge(List<Stream<T>> streams, Comparator<? super T> order) {
+        if (streams.size() == 1) {
+            return streams.get(0);
+        }
+
+        Iterator<T> merged = new Iterator<T>() {
+            private PriorityQueue<Head<T>> heads;
+
+            @Override
+            public boolean hasNext() {
+                if (heads == null) {
+                    heads = new PriorityQueue<>((a, b) -> order.compare(a.value, b.value));
+                    for (Stream<T> stream : streams) {
+                        Iterator<T> rows = stream.iterator();
+                        if (rows.hasNext()) {
+                            heads.add(new Head<>(rows.next(), rows));
+                        }
+                    }
+                }
+                return !heads.isEmpty();
+            }
+
+            @Override
+            public T next() {
+                if (!hasNext()) {
+                    throw new NoSuchElementException();
+                }
+                Head<T> head = heads.poll();
+                T value = head.value;
+                if (head.rows.hasNext()) {
+                    heads.add(new Head<>(head.rows.next(), head.rows));
+                }
+                return value;
+            }
+        };
+
+        Stream<T> result = StreamSupport.stream(
+                Spliterators.spliteratorUnknownSize(merged, Spliterator.ORDERED | Spliterator.NONNULL), false);
+        for (Stream<T> stream : streams) {
+            result = result.onClose(stream::close);
+        }
+        return result;
+    }
+
+    /**
+     * Close streams opened so far after a later one failed to open
+     */
+    static void closeAll(Throwable failure, List<? extends Stream<?>> streams) {
+        for (Stream<?> stream : new ArrayList<>(streams)) {
+            try {
+                stream.close();
+            } catch (RuntimeException e) {
+                failure.addSuppressed(e);
+            }
+        }
+    }
+
+    private static SQLException closeAll(Throwable failure, AutoCloseable... resources) {
+        SQLException first = null;
+        for (AutoCloseable resource : resources) {
+            if (resource == null) {
+                continue;
+            }
+            try {
+                resource.close();
+            } catch (Exception e) {
+                if (failure != null) {
+                    failure.addSuppressed(e);
+                } else if (first == null) {
+                    first = e instanceof SQLException ? (SQLException) e : new SQLException(e);
+                } else {
+                    first.addSuppressed(e);
+                }
+            }
+        }
+        return first;
+    }
+
+    /**
+     * Next row of one input stream
+     */
+    private static final class Head<T> {
+        private final T value;
+        private final Iterator<T> rows;
+
+        Head(T value, Iterator<T> rows) {
+            this.value = value;
+            this.rows = rows;
+        }
+    }
+}
@@ -0,0 +1,53 @@
+package com.ecommerce.dao;
+
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+
+/**
+ * Optimistic concurrency for tables with a version column.
+ *
+ * Every write to a versioned row sets version = version + 1. A write that
+ * carries the version the caller read adds AND version = ? to its WHERE
+ * clause, so it matches nothing if the row changed in the meantime; no locks
+ * are held between the read and the write. Only when such a write matches
+ * no row does the DAO look again, to tell a missing row from a conflict.
+ */
+final class RowVersion {
+
+    private RowVersion() {
+    }
+
+    /**
+     * Throw if a versioned write missed because the row has moved on
+     *
+     * @param conn            Connection the write ran on
+     * @param table           Table name
+     * @param idColumn        Primary key column
+     * @param id              Primary key of the row
+     * @param expectedVersion Version the write carried, or null for an
+     *                        unconditional write
+     * @param entity          Row description for the error, e.g. "Order 42"
+     * @throws OptimisticLockException if the row exists with another version
+     */
+    static void checkConflict(Connection conn, String table, String idColumn, int id, Integer expectedVersion,
+            String entity) throws SQLException {
+        if (expectedVersion == null) {
+            return;
+        }
+        String sql = "SELECT version FROM " + table + " WHERE " + idColumn + " = ?";
+
+        try (PreparedStatement stmt = conn.prepareStatement(sql)) {
+            stmt.setInt(1, id);
+
+            try (ResultSet rs = stmt.executeQuery()) {
+                if (rs.next()) {
+                    int current = rs.getInt(1);
+                    throw new OptimisticLockException(entity + " was changed by someone else"
+                            + " (expected version " + expectedVersion + ", found " + current + ")", current);
+                }
+            }
+        }
+    }
+}
@@ -0,0 +1,20 @@
+package com.ecommerce.dao;
+
+import java.sql.SQLException;
+
+/**
+ * Wraps a SQLException thrown while a DAO stream is being consumed, where
+ * the Stream API does not allow checked exceptions.
+ */
+public class UncheckedSQLException extends RuntimeException {
+    private static final long serialVersionUID = 1L;
+
+    public UncheckedSQLException(SQLException cause) {
+        super(cause.getMessage(), cause);
+    }
+
+    @Override
+    public synchronized SQLException getCause() {
+        return (SQLException) super.getCause();
+    }
+}
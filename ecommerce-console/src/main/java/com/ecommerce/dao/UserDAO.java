@@ -1,18 +1,37 @@
 package com.ecommerce.dao;
 
 import com.ecommerce.model.User;
+import com.ecommerce.model.Page;
+import com.ecommerce.model.UserSummary;
 import java.sql.SQLException;
+import java.util.Collection;
 import java.util.List;
+import java.util.Map;
+import java.util.stream.Stream;
 
 public interface UserDAO {
     User create(User user) throws SQLException;
 
+    List<User> createAll(List<User> users) throws SQLException;
+
     User getById(Integer id) throws SQLException;
 
+    Map<Integer, User> getByIds(Collection<Integer> ids) throws SQLException;
+
     List<User> getAll() throws SQLException;
 
+    Page<User> page(String afterCursor, int limit) throws SQLException;
+
+    List<UserSummary> getAllSummaries() throws SQLException;
+
+    Page<UserSummary> pageSummaries(String afterCursor, int limit) throws SQLException;
+
+    Stream<User> streamAll() throws SQLException;
+
     boolean update(User user) throws SQLException;
 
+    boolean patch(Integer id, User changes) throws SQLException;
+
     boolean delete(Integer id) throws SQLException;
 
     User getByEmail(String email) throws SQLException;
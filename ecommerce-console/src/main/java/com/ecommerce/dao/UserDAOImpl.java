@@ -1,13 +1,34 @@
 package com.ecommerce.dao;
 
 import com.ecommerce.db.DatabaseConnection;
+import com.ecommerce.db.UnitOfWork;
+import com.ecommerce.model.Page;
 import com.ecommerce.model.User;
+import com.ecommerce.model.UserSummary;
 
 import java.sql.*;
 import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
 import java.util.List;
+import java.util.Map;
+import java.util.stream.Stream;
 
 public class UserDAOImpl implements UserDAO {
+    /**
+     * Columns read by list queries; password hashes and timestamps are left
+     * to single-user fetches.
+     */
+    private static final String SUMMARY_COLUMNS = "user_id, username, email, first_name, last_name, phone, role, is_active";
+
+    private static final BeanMapper<User> USERS = BeanMapper.of(User.class);
+    private static final BeanMapper<UserSummary> SUMMARIES = BeanMapper.of(UserSummary.class);
+
+    /**
+     * Binds the insert and update columns, in this order
+     */
+    private static final BeanMapper.Writer<User> USER_FIELDS = USERS.writer(
+            "email", "username", "password_hash", "first_name", "last_name", "phone", "role", "is_active");
 
     @Override
     public User create(User user) throws SQLException {
@@ -16,14 +37,8 @@ public class UserDAOImpl implements UserDAO {
         try (Connection conn = DatabaseConnection.getConnection();
                 PreparedStatement stmt = conn.prepareStatement(sql, Statement.RETURN_GENERATED_KEYS)) {
 
-            stmt.setString(1, user.getEmail());
-            stmt.setString(2, user.getUsername());
-            stmt.setString(3, user.getPasswordHash());
-            stmt.setString(4, user.getFirstName());
-            stmt.setString(5, user.getLastName());
-            stmt.setString(6, user.getPhone());
-            stmt.setString(7, user.getRole());
-            stmt.setBoolean(8, user.getIsActive() != null ? user.getIsActive() : true);
+            defaultActive(user);
+            USER_FIELDS.write(stmt, 1, user);
 
             int affectedRows = stmt.executeUpdate();
 
@@ -43,18 +58,39 @@ public class UserDAOImpl implements UserDAO {
         return user;
     }
 
+    @Override
+    public List<User> createAll(List<User> users) throws SQLException {
+        String sql = "INSERT INTO users (email, username, password_hash, first_name, last_name, phone, role, is_active) VALUES (?, ?, ?, ?, ?, ?, ?, ?)";
+
+        if (users.isEmpty()) {
+            return users;
+        }
+
+        UnitOfWork.run(() -> {
+            try (Connection conn = DatabaseConnection.getConnection()) {
+                BatchInsert.insert(conn, sql, users, DatabaseConnection.getBatchSize(), (stmt, user) -> {
+                    defaultActive(user);
+                    USER_FIELDS.write(stmt, 1, user);
+                }, User::setUserId, "user");
+            }
+        });
+
+        return users;
+    }
+
     @Override
     public User getById(Integer id) throws SQLException {
         String sql = "SELECT * FROM users WHERE user_id = ?";
 
-        try (Connection conn = DatabaseConnection.getConnection();
+        try (Connection conn = DatabaseConnection.getReadConnection();
                 PreparedStatement stmt = conn.prepareStatement(sql)) {
 
             stmt.setInt(1, id);
 
             try (ResultSet rs = stmt.executeQuery()) {
+                BeanMapper.Reader<User> reader = USERS.reader(rs);
                 if (rs.next()) {
-                    return mapResultSetToUser(rs);
+                    return reader.read(rs);
                 }
             }
         }
@@ -62,23 +98,160 @@ public class UserDAOImpl implements UserDAO {
         return null;
     }
 
+    /**
+     * Look up many users with chunked IN-list queries on one connection
+     */
+    @Override
+    public Map<Integer, User> getByIds(Collection<Integer> ids) throws SQLException {
+        Map<Integer, User> users = new HashMap<>();
+        List<List<Integer>> chunks = InList.chunks(ids);
+        if (chunks.isEmpty()) {
+            return users;
+        }
+
+        try (Connection conn = DatabaseConnection.getReadConnection()) {
+            for (List<Integer> chunk : chunks) {
+                int size = InList.paddedSize(chunk.size());
+                String sql = "SELECT * FROM users WHERE user_id IN (" + InList.placeholders(size) + ")";
+
+                try (PreparedStatement stmt = conn.prepareStatement(sql)) {
+                    InList.bind(stmt, 1, chunk, size);
+
+                    try (ResultSet rs = stmt.executeQuery()) {
+                        BeanMapper.Reader<User> reader = USERS.reader(rs);
+                        while (rs.next()) {
+                            User user = reader.read(rs);
+                            users.put(user.getUserId(), user);
+                        }
+                    }
+                }
+            }
+        }
+
+        return users;
+    }
+
     @Override
     public List<User> getAll() throws SQLException {
         String sql = "SELECT * FROM users ORDER BY last_name, first_name";
         List<User> users = new ArrayList<>();
 
-        try (Connection conn = DatabaseConnection.getConnection();
+        try (Connection conn = DatabaseConnection.getReadConnection();
+                Statement stmt = conn.createStatement();
+                ResultSet rs = stmt.executeQuery(sql)) {
+            BeanMapper.Reader<User> reader = USERS.reader(rs);
+
+            while (rs.next()) {
+                users.add(reader.read(rs));
+            }
+        }
+
+        return users;
+    }
+
+    @Override
+    public Page<User> page(String afterCursor, int limit) throws SQLException {
+        List<User> users = pageRows("*", afterCursor, limit, USERS);
+        return PageCursor.page(users, limit,
+                u -> PageCursor.encode("users", u.getLastName(), u.getFirstName(), u.getUserId()));
+    }
+
+    @Override
+    public List<UserSummary> getAllSummaries() throws SQLException {
+        String sql = "SELECT " + SUMMARY_COLUMNS + " FROM users ORDER BY last_name, first_name";
+        List<UserSummary> users = new ArrayList<>();
+
+        try (Connection conn = DatabaseConnection.getReadConnection();
                 Statement stmt = conn.createStatement();
                 ResultSet rs = stmt.executeQuery(sql)) {
+            BeanMapper.Reader<UserSummary> reader = SUMMARIES.reader(rs);
 
             while (rs.next()) {
-                users.add(mapResultSetToUser(rs));
+                users.add(reader.read(rs));
             }
         }
 
         return users;
     }
 
+    /**
+     * Same order and cursors as page(), so clients can switch between the
+     * two without losing their place.
+     */
+    @Override
+    public Page<UserSummary> pageSummaries(String afterCursor, int limit) throws SQLException {
+        List<UserSummary> users = pageRows(SUMMARY_COLUMNS, afterCursor, limit, SUMMARIES);
+        return PageCursor.page(users, limit,
+                u -> PageCursor.encode("users", u.getLastName(), u.getFirstName(), u.getUserId()));
+    }
+
+    /**
+     * Fetch up to limit + 1 rows of one page in (last_name, first_name,
+     * user_id) order
+     *
+     * @param select Select list
+     * @param mapper Mapper for the selected columns
+     */
+    private <T> List<T> pageRows(String select, String afterCursor, int limit, BeanMapper<T> mapper)
+            throws SQLException {
+        PageCursor.checkLimit(limit);
+        List<T> rows = new ArrayList<>();
+
+        if (afterCursor == null) {
+            String sql = "SELECT " + select + " FROM users ORDER BY last_name, first_name, user_id LIMIT ?";
+
+            try (Connection conn = DatabaseConnection.getReadConnection();
+                    PreparedStatement stmt = conn.prepareStatement(sql)) {
+
+                stmt.setInt(1, limit + 1);
+
+                try (ResultSet rs = stmt.executeQuery()) {
+                    BeanMapper.Reader<T> reader = mapper.reader(rs);
+                    while (rs.next()) {
+                        rows.add(reader.read(rs));
+                    }
+                }
+            }
+        } else {
+            Object[] after = PageCursor.decode(afterCursor, "users", String.class, String.class, Integer.class);
+            String sql = "SELECT " + select + " FROM users WHERE last_name > ? " +
+                    "OR (last_name = ? AND (first_name > ? OR (first_name = ? AND user_id > ?))) " +
+                    "ORDER BY last_name, first_name, user_id LIMIT ?";
+
+            try (Connection conn = DatabaseConnection.getReadConnection();
+                    PreparedStatement stmt = conn.prepareStatement(sql)) {
+
+                stmt.setString(1, (String) after[0]);
+                stmt.setString(2, (String) after[0]);
+                stmt.setString(3, (String) after[1]);
+                stmt.setString(4, (String) after[1]);
+                stmt.setInt(5, (Integer) after[2]);
+                stmt.setInt(6, limit + 1);
+
+                try (ResultSet rs = stmt.executeQuery()) {
+                    BeanMapper.Reader<T> reader = mapper.reader(rs);
+                    while (rs.next()) {
+                        rows.add(reader.read(rs));
+                    }
+                }
+            }
+        }
+
+        return rows;
+    }
+
+    /**
+     * Rows are read one at a time in streaming mode; close the stream to
+     * release its connection.
+     */
+    @Override
+    public Stream<User> streamAll() throws SQLException {
+        String sql = "SELECT * FROM users ORDER BY last_name, first_name";
+
+        return ResultSetStream.open(DatabaseConnection.getStreamingConnection(), sql,
+                USERS::reader, (rs, reader) -> reader.read(rs));
+    }
+
     @Override
     public boolean update(User user) throws SQLException {
         String sql = "UPDATE users SET email = ?, username = ?, password_hash = ?, first_name = ?, last_name = ?, phone = ?, role = ?, is_active = ? WHERE user_id = ?";
@@ -86,20 +259,35 @@ public class UserDAOImpl implements UserDAO {
         try (Connection conn = DatabaseConnection.getConnection();
                 PreparedStatement stmt = conn.prepareStatement(sql)) {
 
-            stmt.setString(1, user.getEmail());
-            stmt.setString(2, user.getUsername());
-            stmt.setString(3, user.getPasswordHash());
-            stmt.setString(4, user.getFirstName());
-            stmt.setString(5, user.getLastName());
-            stmt.setString(6, user.getPhone());
-            stmt.setString(7, user.getRole());
-            stmt.setBoolean(8, user.getIsActive());
-            stmt.setInt(9, user.getUserId());
+            int index = USER_FIELDS.write(stmt, 1, user);
+            stmt.setInt(index, user.getUserId());
 
             return stmt.executeUpdate() > 0;
         }
     }
 
+    /**
+     * Write only the non-null fields of changes
+     *
+     * @return true if the user exists
+     */
+    @Override
+    public boolean patch(Integer id, User changes) throws SQLException {
+        PartialUpdate update = new PartialUpdate("users", "user_id")
+                .set("email", changes.getEmail())
+                .set("username", changes.getUsername())
+                .set("password_hash", changes.getPasswordHash())
+                .set("first_name", changes.getFirstName())
+                .set("last_name", changes.getLastName())
+                .set("phone", changes.getPhone())
+                .set("role", changes.getRole())
+                .set("is_active", changes.getIsActive());
+
+        try (Connection conn = DatabaseConnection.getConnection()) {
+            return update.execute(conn, id);
+        }
+    }
+
     @Override
     public boolean delete(Integer id) throws SQLException {
         String sql = "DELETE FROM users WHERE user_id = ?";
@@ -116,14 +304,15 @@ public class UserDAOImpl implements UserDAO {
     public User getByEmail(String email) throws SQLException {
         String sql = "SELECT * FROM users WHERE email = ?";
 
-        try (Connection conn = DatabaseConnection.getConnection();
+        try (Connection conn = DatabaseConnection.getReadConnection();
                 PreparedStatement stmt = conn.prepareStatement(sql)) {
 
             stmt.setString(1, email);
 
             try (ResultSet rs = stmt.executeQuery()) {
+                BeanMapper.Reader<User> reader = USERS.reader(rs);
                 if (rs.next()) {
-                    return mapResultSetToUser(rs);
+                    return reader.read(rs);
                 }
             }
         }
@@ -131,19 +320,12 @@ public class UserDAOImpl implements UserDAO {
         return null;
     }
 
-    private User mapResultSetToUser(ResultSet rs) throws SQLException {
-        User user = new User();
-        user.setUserId(rs.getInt("user_id"));
-        user.setEmail(rs.getString("email"));
-        user.setUsername(rs.getString("username"));
-        user.setPasswordHash(rs.getString("password_hash"));
-        user.setFirstName(rs.getString("first_name"));
-        user.setLastName(rs.getString("last_name"));
-        user.setPhone(rs.getString("phone"));
-        user.setRole(rs.getString("role"));
-        user.setIsActive(rs.getBoolean("is_active"));
-        user.setCreatedAt(rs.getTimestamp("created_at"));
-        user.setUpdatedAt(rs.getTimestamp("updated_at"));
-        return user;
+    /**
+     * New users are active unless the caller said otherwise
+     */
+    private static void defaultActive(User user) {
+        if (user.getIsActive() == null) {
+            user.setIsActive(true);
+        }
     }
 }
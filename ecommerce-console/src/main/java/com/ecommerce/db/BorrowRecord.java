@@ -0,0 +1,75 @@
+package com.ecommerce.db;
+
+/**
+ * Bookkeeping for one borrowed connection: who took it, when, and from where.
+ */
+public final class BorrowRecord {
+    private final String caller;
+    private final String flow;
+    private final String threadName;
+    private final long borrowedAt;
+    private final long borrowedAtNanos;
+    private final Throwable borrowStack;
+    private volatile boolean leakReported;
+
+    BorrowRecord(String caller, String flow, Throwable borrowStack) {
+        this.caller = caller;
+        this.flow = flow;
+        this.threadName = Thread.currentThread().getName();
+        this.borrowedAt = System.currentTimeMillis();
+        this.borrowedAtNanos = System.nanoTime();
+        this.borrowStack = borrowStack;
+    }
+
+    /**
+     * @return The method that borrowed the connection, e.g.
+     *         ProductDAOImpl.getById
+     */
+    public String getCaller() {
+        return caller;
+    }
+
+    /**
+     * @return The first method outside the data layer, e.g.
+     *         ConsoleUI.placeOrder
+     */
+    public String getFlow() {
+        return flow;
+    }
+
+    public String getThreadName() {
+        return threadName;
+    }
+
+    public long getBorrowedAt() {
+        return borrowedAt;
+    }
+
+    public long getHeldMs() {
+        return (System.nanoTime() - borrowedAtNanos) / 1_000_000;
+    }
+
+    long getBorrowedAtNanos() {
+        return borrowedAtNanos;
+    }
+
+    /**
+     * @return Stack trace captured at borrow time, or null when stack tracking
+     *         is disabled
+     */
+    public StackTraceElement[] getBorrowStackTrace() {
+        return borrowStack != null ? borrowStack.getStackTrace() : null;
+    }
+
+    Throwable getBorrowStack() {
+        return borrowStack;
+    }
+
+    boolean isLeakReported() {
+        return leakReported;
+    }
+
+    void markLeakReported() {
+        this.leakReported = true;
+    }
+}
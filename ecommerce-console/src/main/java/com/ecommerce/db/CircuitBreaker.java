@@ -0,0 +1,255 @@
+package com.ecommerce.db;
+
+import io.github.cdimascio.dotenv.Dotenv;
+
+import java.sql.SQLException;
+import java.sql.SQLNonTransientConnectionException;
+import java.sql.SQLTimeoutException;
+
+/**
+ * Circuit breaker for one connection pool.
+ *
+ * CLOSED: calls go through and their outcomes fill a sliding window. When at
+ * least minimumCalls are in the window and the failure rate or the slow-call
+ * rate reaches its threshold, the breaker opens.
+ * OPEN: borrows fail fast with {@link DatabaseUnavailableException} until
+ * openDurationMs has passed.
+ * HALF_OPEN: borrows go through, but only a few statement executions (the
+ * probes) are let through. If the probes succeed the breaker closes; any
+ * failed or slow probe opens it again. A probe starts and reports back on
+ * the same execute call, so every probe that starts also finishes.
+ *
+ * Only connection and timeout errors count as failures; constraint violations
+ * and other query errors say nothing about the database's health, and an
+ * exhausted pool means the application is overloaded, not that the database
+ * is down.
+ */
+public class CircuitBreaker {
+    public enum State {
+        CLOSED, OPEN, HALF_OPEN
+    }
+
+    private final String name;
+    private final boolean enabled;
+    private final int failureRateThreshold;
+    private final long slowCallThresholdNanos;
+    private final int slowCallRateThreshold;
+    private final int minimumCalls;
+    private final long openDurationMs;
+    private final int halfOpenProbes;
+
+    private final boolean[] failedCalls;
+    private final boolean[] slowCalls;
+    private int windowPosition;
+    private int windowCount;
+    private int failedCount;
+    private int slowCount;
+
+    private State state = State.CLOSED;
+    private long stateChangedAt = System.currentTimeMillis();
+    private int probesStarted;
+    private int probesSucceeded;
+
+    public CircuitBreaker(String name, boolean enabled, int windowSize, int minimumCalls,
+            int failureRateThreshold, long slowCallThresholdMs, int slowCallRateThreshold,
+            long openDurationMs, int halfOpenProbes) {
+        if (windowSize < 1 || minimumCalls < 1 || halfOpenProbes < 1) {
+            throw new IllegalArgumentException("Circuit breaker window, minimum calls and probes must be positive");
+        }
+        this.name = name;
+        this.enabled = enabled;
+        this.failureRateThreshold = failureRateThreshold;
+        this.slowCallThresholdNanos = slowCallThresholdMs * 1_000_000;
+        this.slowCallRateThreshold = slowCallRateThreshold;
+        this.minimumCalls = Math.min(minimumCalls, windowSize);
+        this.openDurationMs = openDurationMs;
+        this.halfOpenProbes = halfOpenProbes;
+        this.failedCalls = new boolean[windowSize];
+        this.slowCalls = new boolean[windowSize];
+    }
+
+    /**
+     * Build a circuit breaker from .env keys
+     *
+     * DB_BREAKER_ENABLED, DB_BREAKER_WINDOW_SIZE, DB_BREAKER_MIN_CALLS,
+     * DB_BREAKER_FAILURE_RATE, DB_BREAKER_SLOW_CALL_MS,
+     * DB_BREAKER_SLOW_CALL_RATE, DB_BREAKER_OPEN_MS, DB_BREAKER_HALF_OPEN_PROBES
+     *
+     * @param dotenv Loaded .env values
+     * @param name   Pool name, used in error messages
+     * @return Circuit breaker
+     */
+    public static CircuitBreaker fromEnv(Dotenv dotenv, String name) {
+        return new CircuitBreaker(name,
+                PoolConfig.booleanSetting(dotenv, "DB_BREAKER_ENABLED", true),
+                PoolConfig.intSetting(dotenv, "DB_BREAKER_WINDOW_SIZE", 20),
+                PoolConfig.intSetting(dotenv, "DB_BREAKER_MIN_CALLS", 10),
+                PoolConfig.intSetting(dotenv, "DB_BREAKER_FAILURE_RATE", 50),
+                PoolConfig.intSetting(dotenv, "DB_BREAKER_SLOW_CALL_MS", 2_000),
+                PoolConfig.intSetting(dotenv, "DB_BREAKER_SLOW_CALL_RATE", 80),
+                PoolConfig.intSetting(dotenv, "DB_BREAKER_OPEN_MS", 10_000),
+                PoolConfig.intSetting(dotenv, "DB_BREAKER_HALF_OPEN_PROBES", 3));
+    }
+
+    /**
+     * A breaker that never opens
+     */
+    public static CircuitBreaker disabled(String name) {
+        return new CircuitBreaker(name, false, 1, 1, 100, Long.MAX_VALUE / 1_000_000, 100, 0, 1);
+    }
+
+    /**
+     * Check whether a connection may be borrowed
+     *
+     * @throws DatabaseUnavailableException if the breaker is open
+     */
+    public synchronized void checkAvailable() {
+        if (!enabled) {
+            return;
+        }
+        long now = System.currentTimeMillis();
+        if (state == State.OPEN) {
+            if (now - stateChangedAt < openDurationMs) {
+                throw unavailable(now);
+            }
+            transitionTo(State.HALF_OPEN, now);
+        }
+    }
+
+    /**
+     * Check whether a statement may run. While half-open this starts a probe,
+     * which the following recordSuccess or recordFailure finishes.
+     *
+     * @throws DatabaseUnavailableException if the breaker is open or all
+     *                                      probes are running
+     */
+    public synchronized void acquirePermission() {
+        checkAvailable();
+        if (enabled && state == State.HALF_OPEN) {
+            if (probesStarted >= halfOpenProbes) {
+                throw unavailable(System.currentTimeMillis());
+            }
+            probesStarted++;
+        }
+    }
+
+    /**
+     * Record a call that completed without a database-health error
+     *
+     * @param durationNanos How long the call took
+     */
+    public void recordSuccess(long durationNanos) {
+        record(false, durationNanos >= slowCallThresholdNanos);
+    }
+
+    /**
+     * Record a failed call. Errors that do not indicate a database problem
+     * count as successful, fast calls.
+     *
+     * @param error         The error the call failed with
+     * @param durationNanos How long the call took
+     */
+    public void recordFailure(Throwable error, long durationNanos) {
+        if (isHealthFailure(error)) {
+            record(true, durationNanos >= slowCallThresholdNanos);
+        } else {
+            recordSuccess(durationNanos);
+        }
+    }
+
+    public synchronized State getState() {
+        return state;
+    }
+
+    public String getName() {
+        return name;
+    }
+
+    private synchronized void record(boolean failed, boolean slow) {
+        if (!enabled) {
+            return;
+        }
+        long now = System.currentTimeMillis();
+        switch (state) {
+            case HALF_OPEN:
+                if (failed || slow) {
+                    transitionTo(State.OPEN, now);
+                } else if (probesSucceeded < probesStarted && ++probesSucceeded >= halfOpenProbes) {
+                    // Calls started before the breaker went half-open are not probes
+                    transitionTo(State.CLOSED, now);
+                }
+                break;
+            case CLOSED:
+                addToWindow(failed, slow);
+                if (windowCount >= minimumCalls
+                        && (failedCount * 100 >= failureRateThreshold * windowCount
+                                || slowCount * 100 >= slowCallRateThreshold * windowCount)) {
+                    transitionTo(State.OPEN, now);
+                }
+                break;
+            default:
+                // Calls that were already running when the breaker opened
+                break;
+        }
+    }
+
+    private void addToWindow(boolean failed, boolean slow) {
+        if (windowCount == failedCalls.length) {
+            if (failedCalls[windowPosition]) {
+                failedCount--;
+            }
+            if (slowCalls[windowPosition]) {
+                slowCount--;
+            }
+        } else {
+            windowCount++;
+        }
+        failedCalls[windowPosition] = failed;
+        slowCalls[windowPosition] = slow;
+        if (failed) {
+            failedCount++;
+        }
+        if (slow) {
+            slowCount++;
+        }
+        windowPosition = (windowPosition + 1) % failedCalls.length;
+    }
+
+    private void transitionTo(State newState, long now) {
+        if (newState != state) {
+            System.err.println("Database circuit breaker '" + name + "' " + state + " -> " + newState);
+        }
+        state = newState;
+        stateChangedAt = now;
+        probesStarted = 0;
+        probesSucceeded = 0;
+        if (newState == State.CLOSED) {
+            windowPosition = 0;
+            windowCount = 0;
+            failedCount = 0;
+            slowCount = 0;
+        }
+    }
+
+    private DatabaseUnavailableException unavailable(long now) {
+        long retryAfterMs = Math.max(0, openDurationMs - (now - stateChangedAt));
+        return new DatabaseUnavailableException(
+                "Database '" + name + "' is unavailable (circuit breaker " + state + ")",
+                (retryAfterMs + 999) / 1_000);
+    }
+
+    /**
+     * Connection errors (SQLState 08xxx) and statement timeouts mean the
+     * database is unhealthy
+     */
+    private static boolean isHealthFailure(Throwable error) {
+        if (!(error instanceof SQLException)) {
+            return false;
+        }
+        SQLException e = (SQLException) error;
+        String state = e.getSQLState();
+        return e instanceof SQLTimeoutException
+                || e instanceof SQLNonTransientConnectionException
+                || (state != null && state.startsWith("08"));
+    }
+}
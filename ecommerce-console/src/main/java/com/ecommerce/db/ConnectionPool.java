@@ -0,0 +1,390 @@
+package com.ecommerce.db;
+
+import java.sql.Connection;
+import java.sql.DriverManager;
+import java.sql.SQLException;
+import java.sql.SQLTransientConnectionException;
+import java.sql.Statement;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executors;
+import java.util.concurrent.LinkedBlockingDeque;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Bounded JDBC connection pool.
+ *
+ * - At most maxSize physical connections exist; borrowers wait up to maxWaitMs
+ * for one and then get an SQLTransientConnectionException.
+ * - Idle connections are reused most-recently-returned first, so the oldest
+ * ones age out and are evicted after idleTimeoutMs (never below minSize).
+ * - A connection that has been idle longer than the validation interval is
+ * checked with isValid() before it is handed out.
+ * - Each physical connection keeps its own cache of prepared statements
+ * (statementCacheSize, 0 disables it).
+ * - Every borrow is tracked with its caller (and optionally its stack trace).
+ * Connections held longer than leakDetectionThresholdMs are reported as
+ * possible leaks, and hold times are recorded per calling method.
+ */
+public class ConnectionPool {
+    private static final StackWalker STACK_WALKER = StackWalker.getInstance();
+    private static final int MAX_CALLER_FRAMES = 64;
+
+    private final PoolConfig config;
+    private final LinkedBlockingDeque<PooledConnection> idle = new LinkedBlockingDeque<>();
+    private final Semaphore permits;
+    private final AtomicInteger totalConnections = new AtomicInteger();
+    private final AtomicLong statementCacheHits = new AtomicLong();
+    private final AtomicLong statementCacheMisses = new AtomicLong();
+    private final Set<BorrowRecord> borrowed = ConcurrentHashMap.newKeySet();
+    private final Map<String, HoldTimeHistogram> holdTimes = new ConcurrentHashMap<>();
+    private final CircuitBreaker circuitBreaker;
+    private final ScheduledExecutorService housekeeper;
+    private volatile boolean closed;
+
+    public ConnectionPool(PoolConfig config) {
+        this(config, CircuitBreaker.disabled(config.getName()));
+    }
+
+    public ConnectionPool(PoolConfig config, CircuitBreaker circuitBreaker) {
+        config.validate();
+        this.config = config;
+        this.circuitBreaker = circuitBreaker;
+        this.permits = new Semaphore(config.getMaxSize(), true);
+
+        long interval = Math.max(1_000, Math.min(30_000, config.getIdleTimeoutMs() / 2));
+        this.housekeeper = Executors.newSingleThreadScheduledExecutor(r -> {
+            Thread thread = new Thread(r, "db-pool-" + config.getName() + "-housekeeper");
+            thread.setDaemon(true);
+            return thread;
+        });
+        this.housekeeper.scheduleWithFixedDelay(this::housekeep, interval, interval, TimeUnit.MILLISECONDS);
+
+        if (config.getLeakDetectionThresholdMs() > 0) {
+            long leakInterval = Math.max(1_000, config.getLeakDetectionThresholdMs() / 4);
+            this.housekeeper.scheduleWithFixedDelay(this::reportLeaks, leakInterval, leakInterval,
+                    TimeUnit.MILLISECONDS);
+        }
+    }
+
+    /**
+     * Borrow a connection from the pool. Closing the returned connection gives
+     * it back to the pool.
+     *
+     * @return Connection object
+     * @throws SQLException if no connection becomes available within maxWaitMs
+     * @throws DatabaseUnavailableException if the pool's circuit breaker is open
+     */
+    public Connection getConnection() throws SQLException {
+        if (closed) {
+            throw new SQLException("Connection pool '" + config.getName() + "' has been shut down");
+        }
+        circuitBreaker.checkAvailable();
+
+        long startedAt = System.nanoTime();
+        boolean acquired;
+        try {
+            acquired = permits.tryAcquire(config.getMaxWaitMs(), TimeUnit.MILLISECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new SQLException("Interrupted while waiting for a database connection", e);
+        }
+        if (!acquired) {
+            SQLTransientConnectionException e = new SQLTransientConnectionException(String.format(
+                    "Connection pool '%s' exhausted: no connection available within %d ms (%d of %d in use)",
+                    config.getName(), config.getMaxWaitMs(), getActiveCount(), config.getMaxSize()));
+            // Running out of connections is overload, not a database failure
+            throw e;
+        }
+
+        try {
+            PooledConnection pooled;
+            while ((pooled = idle.pollFirst()) != null) {
+                if (isUsable(pooled)) {
+                    return pooled.lease(track());
+                }
+                discard(pooled);
+            }
+            pooled = open();
+            return pooled.lease(track());
+        } catch (SQLException | RuntimeException e) {
+            permits.release();
+            circuitBreaker.recordFailure(e, System.nanoTime() - startedAt);
+            throw e;
+        }
+    }
+
+    /**
+     * Open connections up front and check each one with the validation query,
+     * so the first callers reuse warm connections.
+     *
+     * @param count           Connections to open (capped at maxSize)
+     * @param validationQuery Query run on every warmed connection
+     * @throws SQLException if a connection cannot be opened or validated
+     */
+    public void warmUp(int count, String validationQuery) throws SQLException {
+        int target = Math.min(count, config.getMaxSize());
+        List<Connection> warmed = new ArrayList<>(target);
+        try {
+            for (int i = 0; i < target; i++) {
+                Connection conn = getConnection();
+                warmed.add(conn);
+                try (Statement stmt = conn.createStatement()) {
+                    stmt.execute(validationQuery);
+                }
+            }
+        } finally {
+            for (Connection conn : warmed) {
+                conn.close();
+            }
+        }
+    }
+
+    /**
+     * Return a borrowed connection; called when the caller closes it
+     */
+    void release(PooledConnection pooled, BorrowRecord record) {
+        borrowed.remove(record);
+        holdTimes.computeIfAbsent(record.getCaller(), caller -> new HoldTimeHistogram())
+                .record(System.nanoTime() - record.getBorrowedAtNanos());
+        if (record.isLeakReported()) {
+            System.err.println("Connection previously reported as leaked was returned by " + record.getFlow()
+                    + " after " + record.getHeldMs() + " ms");
+        }
+        try {
+            if (closed || pooled.isBroken() || !reset(pooled)) {
+                discard(pooled);
+            } else {
+                pooled.markReturned();
+                idle.offerFirst(pooled);
+            }
+        } finally {
+            permits.release();
+        }
+    }
+
+    /**
+     * Close all idle connections and stop handing out new ones. Borrowed
+     * connections are closed as they are returned.
+     */
+    public void shutdown() {
+        closed = true;
+        housekeeper.shutdownNow();
+        PooledConnection pooled;
+        while ((pooled = idle.pollFirst()) != null) {
+            discard(pooled);
+        }
+    }
+
+    public String getName() {
+        return config.getName();
+    }
+
+    public PoolConfig getConfig() {
+        return config;
+    }
+
+    public int getTotalCount() {
+        return totalConnections.get();
+    }
+
+    public int getIdleCount() {
+        return idle.size();
+    }
+
+    public int getActiveCount() {
+        return config.getMaxSize() - permits.availablePermits();
+    }
+
+    public boolean isShutdown() {
+        return closed;
+    }
+
+    /**
+     * @return Connections currently borrowed, longest-held first
+     */
+    public List<BorrowRecord> getBorrowedConnections() {
+        List<BorrowRecord> records = new ArrayList<>(borrowed);
+        records.sort(Comparator.comparingLong(BorrowRecord::getBorrowedAtNanos));
+        return records;
+    }
+
+    /**
+     * @return Hold-time histogram per calling method, e.g.
+     *         ProductDAOImpl.getById
+     */
+    public Map<String, HoldTimeHistogram> getHoldTimeHistograms() {
+        return new TreeMap<>(holdTimes);
+    }
+
+    public long getStatementCacheHits() {
+        return statementCacheHits.get();
+    }
+
+    public long getStatementCacheMisses() {
+        return statementCacheMisses.get();
+    }
+
+    /**
+     * @return Circuit breaker guarding this pool
+     */
+    public CircuitBreaker getCircuitBreaker() {
+        return circuitBreaker;
+    }
+
+    void recordStatementCacheHit() {
+        statementCacheHits.incrementAndGet();
+    }
+
+    void recordStatementCacheMiss() {
+        statementCacheMisses.incrementAndGet();
+    }
+
+    private PooledConnection open() throws SQLException {
+        Connection physical = DriverManager.getConnection(config.getJdbcUrl(), config.getUser(), config.getPassword());
+        totalConnections.incrementAndGet();
+        return new PooledConnection(this, physical, config);
+    }
+
+    /**
+     * Record who is borrowing a connection. The caller is the first frame
+     * outside this package (usually a DAO method); the flow is the first frame
+     * outside the data layer (a service, controller or ConsoleUI method).
+     */
+    private BorrowRecord track() {
+        String[] callers = STACK_WALKER.walk(frames -> {
+            String caller = null;
+            String flow = null;
+            for (StackWalker.StackFrame frame : (Iterable<StackWalker.StackFrame>) frames
+                    .limit(MAX_CALLER_FRAMES)::iterator) {
+                String className = frame.getClassName();
+                if (className.startsWith("com.ecommerce.db.")) {
+                    continue;
+                }
+                String name = className.substring(className.lastIndexOf('.') + 1) + "." + frame.getMethodName();
+                if (caller == null) {
+                    caller = name;
+                }
+                if (!className.startsWith("com.ecommerce.dao.")) {
+                    flow = name;
+                    break;
+                }
+            }
+            return new String[] { caller != null ? caller : "unknown", flow != null ? flow : "unknown" };
+        });
+
+        Throwable stack = config.isTrackBorrowStacks()
+                ? new Throwable("Connection borrowed from pool '" + config.getName() + "'")
+                : null;
+        BorrowRecord record = new BorrowRecord(callers[0], callers[1], stack);
+        borrowed.add(record);
+        return record;
+    }
+
+    /**
+     * Log connections held longer than the leak detection threshold, once each
+     */
+    private void reportLeaks() {
+        long threshold = config.getLeakDetectionThresholdMs();
+        for (BorrowRecord record : borrowed) {
+            if (!record.isLeakReported() && record.getHeldMs() > threshold) {
+                record.markLeakReported();
+                System.err.println("Possible connection leak in pool '" + config.getName() + "': connection held for "
+                        + record.getHeldMs() + " ms by " + record.getCaller() + " (flow " + record.getFlow()
+                        + ", thread " + record.getThreadName() + ")");
+                if (record.getBorrowStack() != null) {
+                    record.getBorrowStack().printStackTrace();
+                }
+            }
+        }
+    }
+
+    private void discard(PooledConnection pooled) {
+        totalConnections.decrementAndGet();
+        pooled.closePhysical();
+    }
+
+    /**
+     * Validation on borrow. Connections returned very recently are trusted to
+     * avoid a ping round trip on every borrow under load.
+     */
+    private boolean isUsable(PooledConnection pooled) {
+        long idleFor = System.currentTimeMillis() - pooled.getLastReturnedAt();
+        if (idleFor < config.getValidationIntervalMs()) {
+            return true;
+        }
+        try {
+            return pooled.physical().isValid(config.getValidationTimeoutSeconds());
+        } catch (SQLException e) {
+            return false;
+        }
+    }
+
+    /**
+     * Undo per-borrow state so the next borrower gets a clean connection
+     */
+    private boolean reset(PooledConnection pooled) {
+        Connection conn = pooled.physical();
+        try {
+            if (conn.isClosed()) {
+                return false;
+            }
+            if (!conn.getAutoCommit()) {
+                conn.rollback();
+                conn.setAutoCommit(true);
+            }
+            if (conn.isReadOnly()) {
+                conn.setReadOnly(false);
+            }
+            conn.clearWarnings();
+            return true;
+        } catch (SQLException e) {
+            return false;
+        }
+    }
+
+    /**
+     * Evict connections idle longer than idleTimeoutMs and top the pool back up
+     * to minSize.
+     */
+    private void housekeep() {
+        try {
+            long now = System.currentTimeMillis();
+            Iterator<PooledConnection> oldestFirst = idle.descendingIterator();
+            while (oldestFirst.hasNext() && totalConnections.get() > config.getMinSize()) {
+                PooledConnection pooled = oldestFirst.next();
+                if (now - pooled.getLastReturnedAt() > config.getIdleTimeoutMs()
+                        && idle.removeLastOccurrence(pooled)) {
+                    discard(pooled);
+                }
+            }
+
+            while (!closed && totalConnections.get() < config.getMinSize()) {
+                if (!permits.tryAcquire()) {
+                    break;
+                }
+                try {
+                    PooledConnection pooled = open();
+                    idle.offerLast(pooled);
+                } finally {
+                    permits.release();
+                }
+            }
+        } catch (SQLException e) {
+            System.err.println("Connection pool '" + config.getName() + "' could not open a connection: "
+                    + e.getMessage());
+        } catch (RuntimeException e) {
+            System.err.println("Connection pool '" + config.getName() + "' housekeeping failed: " + e.getMessage());
+        }
+    }
+}
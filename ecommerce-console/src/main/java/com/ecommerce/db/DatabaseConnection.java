@@ -2,27 +2,56 @@ package com.ecommerce.db;
 
 import io.github.cdimascio.dotenv.Dotenv;
 import java.sql.Connection;
-import java.sql.DriverManager;
 import java.sql.SQLException;
+import java.util.ArrayList;
+import java.util.List;
 
 /**
- * Database connection utility using connection pooling concept.
+ * Database connection utility backed by a bounded {@link ConnectionPool}.
  * Loads configuration from .env file.
+ * 
+ * When DB_REPLICA_HOST is set, reads obtained through getReadConnection() are
+ * served by a separate replica pool, while getConnection() always returns a
+ * primary connection. A write pins the thread's later reads to the primary so
+ * callers read their own writes.
+ * 
+ * Configuration is loaded on first use. Long-running processes call start()
+ * at boot to load it eagerly and warm the pools, so the first request does not
+ * pay for connection setup.
+ * 
+ * Statements time out after DB_READ_TIMEOUT_SECONDS (queries) or
+ * DB_WRITE_TIMEOUT_SECONDS (everything else). Each pool has a
+ * {@link CircuitBreaker}; while it is open, getConnection() and
+ * getReadConnection() throw {@link DatabaseUnavailableException} at once
+ * instead of waiting on a database that is down.
+ * 
+ * DB_ORDER_SHARDS optionally lists the databases that hold orders and
+ * order_items; see {@link OrderShards}.
  */
 public class DatabaseConnection {
+    private static String DB_HOST;
+    private static String DB_PORT;
+    private static String DB_NAME;
     private static String DB_URL;
     private static String DB_USER;
     private static String DB_PASSWORD;
-    private static boolean initialized = false;
-
-    static {
-        initialize();
-    }
+    private static boolean USE_SERVER_PREP_STMTS;
+    private static boolean REWRITE_BATCHED_STATEMENTS;
+    private static int CONNECT_TIMEOUT_MS;
+    private static int SOCKET_TIMEOUT_MS;
+    private static int BATCH_SIZE;
+    private static long REPLICA_STICKY_MS;
+    private static int WARMUP_SIZE;
+    private static String VALIDATION_QUERY;
+    private static volatile ConnectionPool pool;
+    private static volatile ConnectionPool replicaPool;
+    private static volatile List<ConnectionPool> orderShardPools = List.of();
+    private static volatile boolean initialized = false;
 
     /**
      * Initialize database configuration from .env file
      */
-    private static void initialize() {
+    private static synchronized void initialize() {
         if (initialized) {
             return;
         }
@@ -34,19 +63,55 @@ public class DatabaseConnection {
                     .ignoreIfMissing()
                     .load();
 
-            String host = dotenv.get("DB_HOST", "localhost");
-            String port = dotenv.get("DB_PORT", "3306");
-            String database = dotenv.get("DB_NAME", "ecommerce_db");
+            DB_HOST = dotenv.get("DB_HOST", "localhost");
+            DB_PORT = dotenv.get("DB_PORT", "3306");
+            DB_NAME = dotenv.get("DB_NAME", "ecommerce_db");
             DB_USER = dotenv.get("DB_USER", "root");
             DB_PASSWORD = dotenv.get("DB_PASSWORD", "");
 
+            USE_SERVER_PREP_STMTS = PoolConfig.booleanSetting(dotenv, "DB_USE_SERVER_PREP_STMTS", true);
+            REWRITE_BATCHED_STATEMENTS = PoolConfig.booleanSetting(dotenv, "DB_REWRITE_BATCHED_STATEMENTS", true);
+            CONNECT_TIMEOUT_MS = PoolConfig.intSetting(dotenv, "DB_CONNECT_TIMEOUT_MS", 5_000);
+            SOCKET_TIMEOUT_MS = PoolConfig.intSetting(dotenv, "DB_SOCKET_TIMEOUT_MS", 0);
+            BATCH_SIZE = PoolConfig.intSetting(dotenv, "DB_BATCH_SIZE", 1_000);
+            if (BATCH_SIZE < 1) {
+                throw new IllegalArgumentException("DB_BATCH_SIZE must be at least 1");
+            }
+
             // Build connection URL
-            DB_URL = String.format("jdbc:mysql://%s:%s/%s?useSSL=false&allowPublicKeyRetrieval=true&serverTimezone=UTC",
-                    host, port, database);
+            DB_URL = buildJdbcUrl(USE_SERVER_PREP_STMTS, REWRITE_BATCHED_STATEMENTS);
 
             // Load MySQL driver
             Class.forName("com.mysql.cj.jdbc.Driver");
 
+            PoolConfig primaryConfig = PoolConfig.fromEnv(dotenv, DB_URL, DB_USER, DB_PASSWORD);
+            WARMUP_SIZE = PoolConfig.intSetting(dotenv, "DB_POOL_WARMUP_SIZE", primaryConfig.getMinSize());
+            VALIDATION_QUERY = dotenv.get("DB_VALIDATION_QUERY", "SELECT 1");
+            pool = new ConnectionPool(primaryConfig, CircuitBreaker.fromEnv(dotenv, primaryConfig.getName()));
+
+            // Optional read replica
+            String replicaHost = dotenv.get("DB_REPLICA_HOST");
+            if (replicaHost != null && !replicaHost.isBlank()) {
+                String replicaUrl = buildJdbcUrl(replicaHost,
+                        dotenv.get("DB_REPLICA_PORT", DB_PORT),
+                        dotenv.get("DB_REPLICA_NAME", DB_NAME),
+                        USE_SERVER_PREP_STMTS, REWRITE_BATCHED_STATEMENTS);
+                PoolConfig replicaConfig = PoolConfig.fromEnv(dotenv, replicaUrl,
+                        dotenv.get("DB_REPLICA_USER", DB_USER),
+                        dotenv.get("DB_REPLICA_PASSWORD", DB_PASSWORD));
+                replicaConfig.setName("replica");
+                replicaPool = new ConnectionPool(replicaConfig, CircuitBreaker.fromEnv(dotenv, replicaConfig.getName()));
+                REPLICA_STICKY_MS = PoolConfig.intSetting(dotenv, "DB_REPLICA_STICKY_MS", 5_000);
+                System.out.println("Read replica configured at " + replicaHost + ".");
+            }
+
+            // Optional order shards
+            String orderShards = dotenv.get("DB_ORDER_SHARDS");
+            if (orderShards != null && !orderShards.isBlank()) {
+                orderShardPools = createOrderShardPools(dotenv, orderShards);
+                System.out.println("Orders sharded across " + orderShardPools.size() + " database(s).");
+            }
+
             initialized = true;
             System.out.println("Database configuration initialized successfully.");
         } catch (ClassNotFoundException e) {
@@ -61,16 +126,272 @@ public class DatabaseConnection {
     }
 
     /**
-     * Get a database connection
+     * Build one pool per DB_ORDER_SHARDS entry. Entries are comma-separated,
+     * each either a database name on DB_HOST or host[:port]/database.
+     * DB_ORDER_SHARD_USER and DB_ORDER_SHARD_PASSWORD default to the primary
+     * credentials.
+     */
+    private static List<ConnectionPool> createOrderShardPools(Dotenv dotenv, String shardList) {
+        String user = dotenv.get("DB_ORDER_SHARD_USER", DB_USER);
+        String password = dotenv.get("DB_ORDER_SHARD_PASSWORD", DB_PASSWORD);
+        List<ConnectionPool> shardPools = new ArrayList<>();
+        for (String entry : shardList.split(",")) {
+            entry = entry.trim();
+            if (entry.isEmpty()) {
+                throw new IllegalArgumentException("DB_ORDER_SHARDS contains an empty entry");
+            }
+            String host = DB_HOST;
+            String port = DB_PORT;
+            String database = entry;
+            int slash = entry.indexOf('/');
+            if (slash >= 0) {
+                String hostPort = entry.substring(0, slash);
+                database = entry.substring(slash + 1);
+                int colon = hostPort.indexOf(':');
+                host = colon >= 0 ? hostPort.substring(0, colon) : hostPort;
+                port = colon >= 0 ? hostPort.substring(colon + 1) : DB_PORT;
+            }
+            String shardUrl = buildJdbcUrl(host, port, database, USE_SERVER_PREP_STMTS, REWRITE_BATCHED_STATEMENTS);
+            PoolConfig shardConfig = PoolConfig.fromEnv(dotenv, shardUrl, user, password);
+            shardConfig.setName("orders-" + shardPools.size());
+            shardPools.add(new ConnectionPool(shardConfig, CircuitBreaker.fromEnv(dotenv, shardConfig.getName())));
+        }
+        return List.copyOf(shardPools);
+    }
+
+    /**
+     * Load configuration, open the pools and warm them up: DB_POOL_WARMUP_SIZE
+     * connections (default DB_POOL_MIN_SIZE) are opened in each pool and
+     * checked with DB_VALIDATION_QUERY before this method returns.
+     * 
+     * @throws IllegalStateException if the database cannot be reached
+     */
+    public static synchronized void start() {
+        initialize();
+        long startedAt = System.currentTimeMillis();
+        try {
+            for (ConnectionPool connectionPool : getPools()) {
+                connectionPool.warmUp(WARMUP_SIZE, VALIDATION_QUERY);
+            }
+        } catch (SQLException e) {
+            throw new IllegalStateException("Database warm-up failed: " + e.getMessage(), e);
+        }
+        System.out.println("Database pools warmed up with " + WARMUP_SIZE + " connection(s) each in "
+                + (System.currentTimeMillis() - startedAt) + " ms.");
+    }
+
+    /**
+     * Build the JDBC URL for the configured host and database.
+     * 
+     * useServerPrepStmts makes MySQL parse each prepared statement once per
+     * connection, which pairs with the pool's statement cache.
+     * rewriteBatchedStatements lets the driver send JDBC batches as multi-row
+     * statements. connectTimeout and socketTimeout (DB_CONNECT_TIMEOUT_MS,
+     * DB_SOCKET_TIMEOUT_MS, 0 disables) bound the network waits that query
+     * timeouts cannot interrupt.
+     * 
+     * @param useServerPrepStmts       Use server-side prepared statements
+     * @param rewriteBatchedStatements Rewrite batches into multi-row statements
+     * @return JDBC URL
+     */
+    public static String buildJdbcUrl(boolean useServerPrepStmts, boolean rewriteBatchedStatements) {
+        return buildJdbcUrl(DB_HOST, DB_PORT, DB_NAME, useServerPrepStmts, rewriteBatchedStatements);
+    }
+
+    private static String buildJdbcUrl(String host, String port, String database,
+            boolean useServerPrepStmts, boolean rewriteBatchedStatements) {
+        return String.format("jdbc:mysql://%s:%s/%s?useSSL=false&allowPublicKeyRetrieval=true&serverTimezone=UTC"
+                + "&useServerPrepStmts=%s&rewriteBatchedStatements=%s&connectTimeout=%d&socketTimeout=%d",
+                host, port, database, useServerPrepStmts, rewriteBatchedStatements,
+                CONNECT_TIMEOUT_MS, SOCKET_TIMEOUT_MS);
+    }
+
+    /**
+     * Get a primary database connection from the pool for writes. Closing it
+     * returns it to the pool. Once an INSERT, UPDATE, DELETE or other
+     * non-query statement runs on it, later reads on this thread stick to the
+     * primary. Inside a {@link UnitOfWork} the unit's shared connection is returned.
      * 
      * @return Connection object
-     * @throws SQLException if connection fails
+     * @throws SQLException if connection fails or the pool is exhausted
+     * @throws DatabaseUnavailableException if the primary's circuit breaker is
+     *                                      open
      */
     public static Connection getConnection() throws SQLException {
+        ConnectionPool primary = primaryPool();
+        UnitOfWork unitOfWork = UnitOfWork.current();
+        if (unitOfWork != null) {
+            return unitOfWork.connectionFor(primary);
+        }
+        return primary.getConnection();
+    }
+
+    /**
+     * Get a connection for a read-only query. Uses the replica pool when one is
+     * configured, unless this thread wrote recently or the replica cannot
+     * provide a connection. Inside a {@link UnitOfWork} reads use the unit's
+     * primary connection so they see its uncommitted writes.
+     * 
+     * @return Connection object
+     * @throws SQLException if connection fails or the pool is exhausted
+     * @throws DatabaseUnavailableException if the primary's circuit breaker is
+     *                                      open
+     */
+    public static Connection getReadConnection() throws SQLException {
+        ConnectionPool primary = primaryPool();
+        UnitOfWork unitOfWork = UnitOfWork.current();
+        if (unitOfWork != null) {
+            return unitOfWork.connectionFor(primary);
+        }
+        ConnectionPool replica = replicaPool;
+        if (replica == null || ReadYourWrites.isPinnedToPrimary(REPLICA_STICKY_MS)) {
+            return primary.getConnection();
+        }
+        try {
+            return replica.getConnection();
+        } catch (SQLException | DatabaseUnavailableException e) {
+            System.err.println("Read replica unavailable, using primary: " + e.getMessage());
+            return primary.getConnection();
+        }
+    }
+
+    /**
+     * Get a dedicated connection for a streaming read. Routed like
+     * getReadConnection(), but never the {@link UnitOfWork}'s shared
+     * connection: a streaming result blocks its connection until it is
+     * closed. Streams therefore do not see a unit of work's uncommitted
+     * writes.
+     * 
+     * @return Connection object
+     * @throws SQLException if connection fails or the pool is exhausted
+     */
+    public static Connection getStreamingConnection() throws SQLException {
+        ConnectionPool primary = primaryPool();
+        ConnectionPool replica = replicaPool;
+        if (replica == null || ReadYourWrites.isPinnedToPrimary(REPLICA_STICKY_MS)) {
+            return primary.getConnection();
+        }
+        try {
+            return replica.getConnection();
+        } catch (SQLException | DatabaseUnavailableException e) {
+            System.err.println("Read replica unavailable, using primary: " + e.getMessage());
+            return primary.getConnection();
+        }
+    }
+
+    /**
+     * Read the primary pool once, so a concurrent shutdown() cannot clear it
+     * between the check and the borrow
+     *
+     * @throws SQLException if shutdown() has closed the pool
+     */
+    private static ConnectionPool primaryPool() throws SQLException {
+        if (!initialized) {
+            initialize();
+        }
+        ConnectionPool primary = pool;
+        if (primary == null) {
+            throw new SQLException("Database connection pool has been shut down");
+        }
+        return primary;
+    }
+
+    /**
+     * Mark the start of an HTTP request on this thread. Until endRequest, a
+     * write pins all later reads to the primary.
+     */
+    public static void beginRequest() {
+        ReadYourWrites.beginRequest();
+    }
+
+    /**
+     * Mark the end of an HTTP request and forget its writes
+     */
+    public static void endRequest() {
+        ReadYourWrites.endRequest();
+    }
+
+    /**
+     * Get the active primary connection pool
+     * 
+     * @return Connection pool
+     */
+    public static ConnectionPool getPool() {
+        if (!initialized) {
+            initialize();
+        }
+        return pool;
+    }
+
+    /**
+     * Get the number of rows DAOs send per JDBC batch (DB_BATCH_SIZE)
+     * 
+     * @return Batch size
+     */
+    public static int getBatchSize() {
         if (!initialized) {
             initialize();
         }
-        return DriverManager.getConnection(DB_URL, DB_USER, DB_PASSWORD);
+        return BATCH_SIZE;
+    }
+
+    /**
+     * Get the order shard pools, in shard order
+     * 
+     * @return Shard pools, empty when orders are not sharded
+     */
+    public static List<ConnectionPool> getOrderShardPools() {
+        if (!initialized) {
+            initialize();
+        }
+        return orderShardPools;
+    }
+
+    /**
+     * Get every active connection pool (primary first, then the replica and
+     * order shards if configured)
+     * 
+     * @return Connection pools
+     */
+    public static List<ConnectionPool> getPools() {
+        List<ConnectionPool> pools = new ArrayList<>();
+        pools.add(getPool());
+        if (replicaPool != null) {
+            pools.add(replicaPool);
+        }
+        pools.addAll(orderShardPools);
+        return pools;
+    }
+
+    /**
+     * Replace the connection pool with one built from a new configuration.
+     * Used by benchmarks to compare pool and driver settings.
+     * 
+     * @param config New pool configuration
+     */
+    public static synchronized void reconfigure(PoolConfig config) {
+        ConnectionPool previous = getPool();
+        pool = new ConnectionPool(config, previous.getCircuitBreaker());
+        previous.shutdown();
+    }
+
+    /**
+     * Close all pooled connections
+     */
+    public static synchronized void shutdown() {
+        initialized = false;
+        if (pool != null) {
+            pool.shutdown();
+        }
+        if (replicaPool != null) {
+            replicaPool.shutdown();
+        }
+        for (ConnectionPool shardPool : orderShardPools) {
+            shardPool.shutdown();
+        }
+        pool = null;
+        replicaPool = null;
+        orderShardPools = List.of();
     }
 
     /**
@@ -81,7 +402,7 @@ public class DatabaseConnection {
     public static boolean testConnection() {
         try (Connection conn = getConnection()) {
             return conn != null && !conn.isClosed();
-        } catch (SQLException e) {
+        } catch (SQLException | DatabaseUnavailableException e) {
             System.err.println("Database connection test failed: " + e.getMessage());
             return false;
         }
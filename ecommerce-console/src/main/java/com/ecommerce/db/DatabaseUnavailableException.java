@@ -0,0 +1,24 @@
+package com.ecommerce.db;
+
+/**
+ * Thrown instead of contacting the database while its circuit breaker is
+ * open. Unchecked so it passes through the DAO and service layers unchanged
+ * and can be mapped to HTTP 503 at the controller boundary.
+ */
+public class DatabaseUnavailableException extends RuntimeException {
+    private static final long serialVersionUID = 1L;
+
+    private final long retryAfterSeconds;
+
+    public DatabaseUnavailableException(String message, long retryAfterSeconds) {
+        super(message);
+        this.retryAfterSeconds = retryAfterSeconds;
+    }
+
+    /**
+     * @return Seconds until the breaker lets calls through again
+     */
+    public long getRetryAfterSeconds() {
+        return retryAfterSeconds;
+    }
+}
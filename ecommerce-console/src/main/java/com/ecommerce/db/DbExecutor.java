@@ -0,0 +1,197 @@
+package com.ecommerce.db;
+
+import java.lang.reflect.Method;
+import java.sql.SQLException;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Bounded executor for database work taken off the calling thread.
+ *
+ * Tasks run on virtual threads when the JVM has them (Java 21+) and on a
+ * fixed pool of daemon threads otherwise. Either way at most as many tasks
+ * run at once as the primary connection pool has connections, so queued
+ * work waits here rather than inside the pool with a borrow timeout.
+ *
+ * A task sees the read-your-writes state of the thread that submitted it,
+ * so a read issued after a write in the same request still goes to the
+ * primary. Connections of a {@link UnitOfWork} belong to its thread, so
+ * inside a unit of work tasks run on the calling thread instead. Tasks
+ * submitted by a running task also run inline: waiting for them while
+ * holding a slot could use up every slot and deadlock.
+ *
+ * A task waits at most DB_POOL_MAX_WAIT_MS for a slot, and await() gives up
+ * after that plus TASK_TIMEOUT_MS (or the longest query timeout, if larger);
+ * both fail with {@link DatabaseUnavailableException}.
+ */
+public final class DbExecutor {
+    private static final long TASK_TIMEOUT_MS = 60_000;
+    private static final ThreadLocal<Boolean> IN_TASK = ThreadLocal.withInitial(() -> false);
+    private static volatile DbExecutor instance;
+
+    private final ExecutorService executor;
+    private final Semaphore permits;
+    private final long maxWaitMs;
+    private final long awaitTimeoutMs;
+
+    /**
+     * Database work run by the executor
+     */
+    @FunctionalInterface
+    public interface Task<T> {
+        T call() throws SQLException;
+    }
+
+    private DbExecutor(PoolConfig config) {
+        int concurrency = config.getMaxSize();
+        this.permits = new Semaphore(concurrency, true);
+        this.maxWaitMs = config.getMaxWaitMs();
+        this.awaitTimeoutMs = maxWaitMs + Math.max(TASK_TIMEOUT_MS,
+                1_000L * Math.max(config.getReadTimeoutSeconds(), config.getWriteTimeoutSeconds()));
+        ExecutorService virtual = virtualThreadExecutor();
+        if (virtual != null) {
+            this.executor = virtual;
+        } else {
+            AtomicInteger threads = new AtomicInteger();
+            this.executor = Executors.newFixedThreadPool(concurrency, r -> {
+                Thread thread = new Thread(r, "db-async-" + threads.incrementAndGet());
+                thread.setDaemon(true);
+                return thread;
+            });
+        }
+    }
+
+    /**
+     * Run a task on the database executor
+     *
+     * @param task DAO calls to run
+     * @return Future completed with the task's result, or exceptionally with
+     *         its SQLException or RuntimeException
+     */
+    public static <T> CompletableFuture<T> supply(Task<T> task) {
+        if (UnitOfWork.isActive() || IN_TASK.get()) {
+            try {
+                return CompletableFuture.completedFuture(task.call());
+            } catch (SQLException | RuntimeException e) {
+                return CompletableFuture.failedFuture(e);
+            }
+        }
+        return get().submit(task);
+    }
+
+    /**
+     * Wait for a future from supply() and rethrow its failure as thrown by
+     * the task
+     *
+     * @param future Future to wait for
+     * @return The task's result
+     * @throws DatabaseUnavailableException if the task does not finish in
+     *                                      time
+     */
+    public static <T> T await(CompletableFuture<T> future) throws SQLException {
+        long timeoutMs = future.isDone() ? 0 : get().awaitTimeoutMs;
+        try {
+            return future.get(timeoutMs, TimeUnit.MILLISECONDS);
+        } catch (TimeoutException e) {
+            throw new DatabaseUnavailableException(
+                    "Database task did not finish within " + timeoutMs + " ms", 1);
+        } catch (InterruptedException e) {
+            future.cancel(true);
+            Thread.currentThread().interrupt();
+            throw new SQLException("Interrupted while waiting for a database task", e);
+        } catch (ExecutionException e) {
+            throw rethrow(e.getCause());
+        }
+    }
+
+    /**
+     * Unwrap the failure of a CompletableFuture stage
+     *
+     * @param failure Exception passed to handle() or exceptionally()
+     * @return The SQLException the task threw, for the caller to throw
+     * @throws RuntimeException if the task threw one
+     */
+    public static SQLException rethrow(Throwable failure) {
+        Throwable cause = failure instanceof CompletionException && failure.getCause() != null
+                ? failure.getCause()
+                : failure;
+        if (cause instanceof SQLException) {
+            return (SQLException) cause;
+        }
+        if (cause instanceof RuntimeException) {
+            throw (RuntimeException) cause;
+        }
+        if (cause instanceof Error) {
+            throw (Error) cause;
+        }
+        return new SQLException("Database task failed", cause);
+    }
+
+    private static DbExecutor get() {
+        DbExecutor current = instance;
+        if (current == null) {
+            synchronized (DbExecutor.class) {
+                current = instance;
+                if (current == null) {
+                    current = new DbExecutor(DatabaseConnection.getPool().getConfig());
+                    instance = current;
+                }
+            }
+        }
+        return current;
+    }
+
+    private <T> CompletableFuture<T> submit(Task<T> task) {
+        ReadYourWrites.State readState = ReadYourWrites.capture();
+        CompletableFuture<T> future = new CompletableFuture<>();
+        Runnable work = () -> {
+            try {
+                if (!permits.tryAcquire(maxWaitMs, TimeUnit.MILLISECONDS)) {
+                    future.completeExceptionally(new DatabaseUnavailableException(
+                            "No database executor slot free after " + maxWaitMs + " ms", 1));
+                    return;
+                }
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                future.completeExceptionally(new SQLException("Interrupted while waiting for a database slot", e));
+                return;
+            }
+            try {
+                IN_TASK.set(true);
+                ReadYourWrites.adopt(readState);
+                future.complete(task.call());
+            } catch (Throwable t) {
+                future.completeExceptionally(t);
+            } finally {
+                IN_TASK.remove();
+                ReadYourWrites.endRequest();
+                permits.release();
+            }
+        };
+
+        executor.execute(work);
+        return future;
+    }
+
+    /**
+     * Executors.newVirtualThreadPerTaskExecutor(), looked up at run time so
+     * the code still builds and runs on Java 17
+     *
+     * @return The executor, or null before Java 21
+     */
+    private static ExecutorService virtualThreadExecutor() {
+        try {
+            Method factory = Executors.class.getMethod("newVirtualThreadPerTaskExecutor");
+            return (ExecutorService) factory.invoke(null);
+        } catch (ReflectiveOperationException e) {
+            return null;
+        }
+    }
+}
@@ -0,0 +1,63 @@
+package com.ecommerce.db;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Fixed-bucket histogram of how long connections were held, in milliseconds.
+ */
+public final class HoldTimeHistogram {
+    private static final long[] BUCKET_UPPER_BOUNDS_MS = {
+            1, 2, 5, 10, 25, 50, 100, 250, 500, 1_000, 2_500, 5_000, 10_000 };
+
+    private final LongAdder[] buckets = new LongAdder[BUCKET_UPPER_BOUNDS_MS.length + 1];
+    private final LongAdder count = new LongAdder();
+    private final LongAdder totalNanos = new LongAdder();
+    private final AtomicLong maxNanos = new AtomicLong();
+
+    HoldTimeHistogram() {
+        for (int i = 0; i < buckets.length; i++) {
+            buckets[i] = new LongAdder();
+        }
+    }
+
+    void record(long nanos) {
+        long millis = nanos / 1_000_000;
+        int bucket = 0;
+        while (bucket < BUCKET_UPPER_BOUNDS_MS.length && millis >= BUCKET_UPPER_BOUNDS_MS[bucket]) {
+            bucket++;
+        }
+        buckets[bucket].increment();
+        count.increment();
+        totalNanos.add(nanos);
+        maxNanos.accumulateAndGet(nanos, Math::max);
+    }
+
+    public long getCount() {
+        return count.sum();
+    }
+
+    public double getMeanMs() {
+        long n = count.sum();
+        return n == 0 ? 0 : totalNanos.sum() / 1_000_000.0 / n;
+    }
+
+    public double getMaxMs() {
+        return maxNanos.get() / 1_000_000.0;
+    }
+
+    /**
+     * @return Bucket label ("<1ms", "<2ms", ..., ">=10000ms") to count
+     */
+    public Map<String, Long> getBuckets() {
+        Map<String, Long> result = new LinkedHashMap<>();
+        for (int i = 0; i < BUCKET_UPPER_BOUNDS_MS.length; i++) {
+            result.put("<" + BUCKET_UPPER_BOUNDS_MS[i] + "ms", buckets[i].sum());
+        }
+        result.put(">=" + BUCKET_UPPER_BOUNDS_MS[BUCKET_UPPER_BOUNDS_MS.length - 1] + "ms",
+                buckets[BUCKET_UPPER_BOUNDS_MS.length].sum());
+        return result;
+    }
+}
@@ -0,0 +1,232 @@
+package com.ecommerce.db;
+
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.PriorityQueue;
+import java.util.concurrent.CompletableFuture;
+
+/**
+ * Routing for orders and order_items when they are split across shards.
+ *
+ * When DB_ORDER_SHARDS lists N databases, an order lives on shard
+ * user_id mod N, together with its items. Ids handed to callers encode the
+ * shard: id = localId * N + shard, where localId is the shard's
+ * AUTO_INCREMENT value. Any order or order item id therefore leads straight
+ * to its shard.
+ *
+ * Without DB_ORDER_SHARDS there is one shard, the encoding is the identity and
+ * connections come from {@link DatabaseConnection} as before.
+ */
+public final class OrderShards {
+    /**
+     * Query run against one shard
+     */
+    @FunctionalInterface
+    public interface ShardQuery<T> {
+        List<T> execute(int shard) throws SQLException;
+    }
+
+    private OrderShards() {
+    }
+
+    /**
+     * @return true if orders are split across more than one database
+     */
+    public static boolean isEnabled() {
+        return !DatabaseConnection.getOrderShardPools().isEmpty();
+    }
+
+    /**
+     * @return Number of shards (1 when sharding is off)
+     */
+    public static int count() {
+        return Math.max(1, DatabaseConnection.getOrderShardPools().size());
+    }
+
+    /**
+     * @param userId User placing or owning the orders
+     * @return Shard holding the user's orders
+     */
+    public static int shardForUser(int userId) {
+        return Math.floorMod(userId, count());
+    }
+
+    /**
+     * Turn a shard-local AUTO_INCREMENT id into the id callers see
+     *
+     * @throws ArithmeticException if the encoded id does not fit in an INT
+     */
+    public static int encode(int localId, int shard) {
+        return Math.addExact(Math.multiplyExact(localId, count()), shard);
+    }
+
+    /**
+     * @param id Encoded order or order item id
+     * @return Shard the row lives on
+     */
+    public static int shardOf(int id) {
+        return Math.floorMod(id, count());
+    }
+
+    /**
+     * @param id Encoded order or order item id
+     * @return Primary key of the row within its shard
+     */
+    public static int localId(int id) {
+        return Math.floorDiv(id, count());
+    }
+
+    /**
+     * For keyset pages sorted by id descending: the largest shard-local id
+     * whose encoded id is below the given one
+     *
+     * @param id    Encoded id of the last row on the previous page
+     * @param shard Shard being queried
+     * @return Local id bound, inclusive
+     */
+    public static int maxLocalIdBelow(int id, int shard) {
+        return Math.floorDiv(id - shard - 1, count());
+    }
+
+    /**
+     * For keyset pages sorted by id ascending: the smallest shard-local id
+     * whose encoded id is above the given one
+     *
+     * @param id    Encoded id of the last row on the previous page
+     * @param shard Shard being queried
+     * @return Local id bound, inclusive
+     */
+    public static int minLocalIdAbove(int id, int shard) {
+        return Math.floorDiv(id - shard, count()) + 1;
+    }
+
+    /**
+     * Get a connection to a shard for writes. Inside a {@link UnitOfWork} the
+     * unit's connection for that shard is returned.
+     */
+    public static Connection getConnection(int shard) throws SQLException {
+        if (!isEnabled()) {
+            return DatabaseConnection.getConnection();
+        }
+        return connectionFor(shard);
+    }
+
+    /**
+     * Get a connection to a shard for reads. Shards have no replicas, so this
+     * only differs from getConnection() when sharding is off.
+     */
+    public static Connection getReadConnection(int shard) throws SQLException {
+        if (!isEnabled()) {
+            return DatabaseConnection.getReadConnection();
+        }
+        return connectionFor(shard);
+    }
+
+    /**
+     * Get a dedicated connection to a shard for a streaming read, bypassing
+     * any {@link UnitOfWork}
+     */
+    public static Connection getStreamingConnection(int shard) throws SQLException {
+        if (!isEnabled()) {
+            return DatabaseConnection.getStreamingConnection();
+        }
+        return DatabaseConnection.getOrderShardPools().get(shard).getConnection();
+    }
+
+    /**
+     * Run a query on every shard. Shards are queried in parallel on the
+     * bounded {@link DbExecutor}, which runs them on the calling thread
+     * inside a {@link UnitOfWork} or an executor task instead.
+     *
+     * @return One result list per shard, in shard order
+     */
+    public static <T> List<List<T>> scatter(ShardQuery<T> query) throws SQLException {
+        int shards = count();
+        List<List<T>> results = new ArrayList<>(shards);
+        if (shards == 1 || UnitOfWork.isActive()) {
+            for (int shard = 0; shard < shards; shard++) {
+                results.add(query.execute(shard));
+            }
+            return results;
+        }
+
+        List<CompletableFuture<List<T>>> futures = new ArrayList<>(shards);
+        for (int shard = 0; shard < shards; shard++) {
+            int target = shard;
+            futures.add(DbExecutor.supply(() -> query.execute(target)));
+        }
+        try {
+            for (CompletableFuture<List<T>> future : futures) {
+                results.add(DbExecutor.await(future));
+            }
+        } catch (SQLException | RuntimeException e) {
+            futures.forEach(f -> f.cancel(true));
+            throw e;
+        }
+        return results;
+    }
+
+    /**
+     * Merge per-shard lists that are each already sorted
+     *
+     * @param parts Sorted lists, one per shard
+     * @param order Order the lists are sorted in
+     * @return One list in that order
+     */
+    public static <T> List<T> mergeSorted(List<List<T>> parts, Comparator<? super T> order) {
+        if (parts.size() == 1) {
+            return parts.get(0);
+        }
+
+        int total = 0;
+        PriorityQueue<Cursor<T>> heads = new PriorityQueue<>((a, b) -> order.compare(a.current(), b.current()));
+        for (List<T> part : parts) {
+            total += part.size();
+            if (!part.isEmpty()) {
+                heads.add(new Cursor<>(part));
+            }
+        }
+
+        List<T> merged = new ArrayList<>(total);
+        while (!heads.isEmpty()) {
+            Cursor<T> head = heads.poll();
+            merged.add(head.current());
+            if (head.advance()) {
+                heads.add(head);
+            }
+        }
+        return merged;
+    }
+
+    private static Connection connectionFor(int shard) throws SQLException {
+        ConnectionPool pool = DatabaseConnection.getOrderShardPools().get(shard);
+        UnitOfWork unitOfWork = UnitOfWork.current();
+        if (unitOfWork != null) {
+            return unitOfWork.connectionFor(pool);
+        }
+        return pool.getConnection();
+    }
+
+    /**
+     * Read position in one sorted shard result
+     */
+    private static final class Cursor<T> {
+        private final List<T> items;
+        private int position;
+
+        Cursor(List<T> items) {
+            this.items = items;
+        }
+
+        T current() {
+            return items.get(position);
+        }
+
+        boolean advance() {
+            return ++position < items.size();
+        }
+    }
+}
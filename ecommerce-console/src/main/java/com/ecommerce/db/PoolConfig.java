@@ -0,0 +1,257 @@
+package com.ecommerce.db;
+
+import io.github.cdimascio.dotenv.Dotenv;
+
+/**
+ * Sizing and timeout settings for a {@link ConnectionPool}.
+ * Values are read from the same .env file as the connection settings.
+ */
+public class PoolConfig {
+    private String name = "primary";
+    private String jdbcUrl;
+    private String user;
+    private String password;
+    private int minSize = 2;
+    private int maxSize = 10;
+    private long idleTimeoutMs = 600_000;
+    private long maxWaitMs = 5_000;
+    private int validationTimeoutSeconds = 2;
+    private long validationIntervalMs = 500;
+    private int statementCacheSize = 250;
+    private long leakDetectionThresholdMs = 30_000;
+    private boolean trackBorrowStacks = true;
+    private int readTimeoutSeconds = 10;
+    private int writeTimeoutSeconds = 30;
+
+    public PoolConfig() {
+    }
+
+    /**
+     * Copy another configuration
+     *
+     * @param other Configuration to copy
+     */
+    public PoolConfig(PoolConfig other) {
+        this.name = other.name;
+        this.jdbcUrl = other.jdbcUrl;
+        this.user = other.user;
+        this.password = other.password;
+        this.minSize = other.minSize;
+        this.maxSize = other.maxSize;
+        this.idleTimeoutMs = other.idleTimeoutMs;
+        this.maxWaitMs = other.maxWaitMs;
+        this.validationTimeoutSeconds = other.validationTimeoutSeconds;
+        this.validationIntervalMs = other.validationIntervalMs;
+        this.statementCacheSize = other.statementCacheSize;
+        this.leakDetectionThresholdMs = other.leakDetectionThresholdMs;
+        this.trackBorrowStacks = other.trackBorrowStacks;
+        this.readTimeoutSeconds = other.readTimeoutSeconds;
+        this.writeTimeoutSeconds = other.writeTimeoutSeconds;
+    }
+
+    public PoolConfig(String jdbcUrl, String user, String password) {
+        this.jdbcUrl = jdbcUrl;
+        this.user = user;
+        this.password = password;
+    }
+
+    /**
+     * Build a pool configuration from .env keys
+     *
+     * DB_POOL_MIN_SIZE, DB_POOL_MAX_SIZE, DB_POOL_IDLE_TIMEOUT_MS,
+     * DB_POOL_MAX_WAIT_MS, DB_POOL_VALIDATION_TIMEOUT_SECONDS,
+     * DB_STATEMENT_CACHE_SIZE, DB_LEAK_DETECTION_THRESHOLD_MS,
+     * DB_TRACK_BORROW_STACKS, DB_READ_TIMEOUT_SECONDS, DB_WRITE_TIMEOUT_SECONDS
+     *
+     * @param dotenv   Loaded .env values
+     * @param jdbcUrl  JDBC URL built from DB_HOST/DB_PORT/DB_NAME
+     * @param user     Database user
+     * @param password Database password
+     * @return Pool configuration
+     */
+    public static PoolConfig fromEnv(Dotenv dotenv, String jdbcUrl, String user, String password) {
+        PoolConfig config = new PoolConfig(jdbcUrl, user, password);
+        config.setMinSize(intSetting(dotenv, "DB_POOL_MIN_SIZE", config.getMinSize()));
+        config.setMaxSize(intSetting(dotenv, "DB_POOL_MAX_SIZE", config.getMaxSize()));
+        config.setIdleTimeoutMs(intSetting(dotenv, "DB_POOL_IDLE_TIMEOUT_MS", (int) config.getIdleTimeoutMs()));
+        config.setMaxWaitMs(intSetting(dotenv, "DB_POOL_MAX_WAIT_MS", (int) config.getMaxWaitMs()));
+        config.setValidationTimeoutSeconds(
+                intSetting(dotenv, "DB_POOL_VALIDATION_TIMEOUT_SECONDS", config.getValidationTimeoutSeconds()));
+        config.setStatementCacheSize(intSetting(dotenv, "DB_STATEMENT_CACHE_SIZE", config.getStatementCacheSize()));
+        config.setLeakDetectionThresholdMs(
+                intSetting(dotenv, "DB_LEAK_DETECTION_THRESHOLD_MS", (int) config.getLeakDetectionThresholdMs()));
+        config.setTrackBorrowStacks(booleanSetting(dotenv, "DB_TRACK_BORROW_STACKS", config.isTrackBorrowStacks()));
+        config.setReadTimeoutSeconds(intSetting(dotenv, "DB_READ_TIMEOUT_SECONDS", config.getReadTimeoutSeconds()));
+        config.setWriteTimeoutSeconds(intSetting(dotenv, "DB_WRITE_TIMEOUT_SECONDS", config.getWriteTimeoutSeconds()));
+        config.validate();
+        return config;
+    }
+
+    /**
+     * Read an integer setting, falling back to a default when it is not set
+     */
+    static int intSetting(Dotenv dotenv, String key, int defaultValue) {
+        String value = dotenv.get(key);
+        if (value == null || value.isBlank()) {
+            return defaultValue;
+        }
+        try {
+            return Integer.parseInt(value.trim());
+        } catch (NumberFormatException e) {
+            throw new IllegalArgumentException(key + " must be an integer but was '" + value + "'");
+        }
+    }
+
+    /**
+     * Read a boolean setting, falling back to a default when it is not set
+     */
+    static boolean booleanSetting(Dotenv dotenv, String key, boolean defaultValue) {
+        String value = dotenv.get(key);
+        if (value == null || value.isBlank()) {
+            return defaultValue;
+        }
+        return Boolean.parseBoolean(value.trim());
+    }
+
+    /**
+     * Check that the sizes and timeouts are consistent
+     */
+    public void validate() {
+        if (maxSize < 1) {
+            throw new IllegalArgumentException("DB_POOL_MAX_SIZE must be at least 1");
+        }
+        if (minSize < 0 || minSize > maxSize) {
+            throw new IllegalArgumentException("DB_POOL_MIN_SIZE must be between 0 and DB_POOL_MAX_SIZE");
+        }
+        if (maxWaitMs < 0 || idleTimeoutMs < 0 || validationTimeoutSeconds < 0 || leakDetectionThresholdMs < 0) {
+            throw new IllegalArgumentException("Pool timeouts cannot be negative");
+        }
+        if (statementCacheSize < 0) {
+            throw new IllegalArgumentException("DB_STATEMENT_CACHE_SIZE cannot be negative");
+        }
+        if (readTimeoutSeconds < 0 || writeTimeoutSeconds < 0) {
+            throw new IllegalArgumentException("Query timeouts cannot be negative");
+        }
+    }
+
+    // Getters and Setters
+    public String getName() {
+        return name;
+    }
+
+    public void setName(String name) {
+        this.name = name;
+    }
+
+    public String getJdbcUrl() {
+        return jdbcUrl;
+    }
+
+    public void setJdbcUrl(String jdbcUrl) {
+        this.jdbcUrl = jdbcUrl;
+    }
+
+    public String getUser() {
+        return user;
+    }
+
+    public void setUser(String user) {
+        this.user = user;
+    }
+
+    public String getPassword() {
+        return password;
+    }
+
+    public void setPassword(String password) {
+        this.password = password;
+    }
+
+    public int getMinSize() {
+        return minSize;
+    }
+
+    public void setMinSize(int minSize) {
+        this.minSize = minSize;
+    }
+
+    public int getMaxSize() {
+        return maxSize;
+    }
+
+    public void setMaxSize(int maxSize) {
+        this.maxSize = maxSize;
+    }
+
+    public long getIdleTimeoutMs() {
+        return idleTimeoutMs;
+    }
+
+    public void setIdleTimeoutMs(long idleTimeoutMs) {
+        this.idleTimeoutMs = idleTimeoutMs;
+    }
+
+    public long getMaxWaitMs() {
+        return maxWaitMs;
+    }
+
+    public void setMaxWaitMs(long maxWaitMs) {
+        this.maxWaitMs = maxWaitMs;
+    }
+
+    public int getValidationTimeoutSeconds() {
+        return validationTimeoutSeconds;
+    }
+
+    public void setValidationTimeoutSeconds(int validationTimeoutSeconds) {
+        this.validationTimeoutSeconds = validationTimeoutSeconds;
+    }
+
+    public long getValidationIntervalMs() {
+        return validationIntervalMs;
+    }
+
+    public void setValidationIntervalMs(long validationIntervalMs) {
+        this.validationIntervalMs = validationIntervalMs;
+    }
+
+    public int getStatementCacheSize() {
+        return statementCacheSize;
+    }
+
+    public void setStatementCacheSize(int statementCacheSize) {
+        this.statementCacheSize = statementCacheSize;
+    }
+
+    public long getLeakDetectionThresholdMs() {
+        return leakDetectionThresholdMs;
+    }
+
+    public void setLeakDetectionThresholdMs(long leakDetectionThresholdMs) {
+        this.leakDetectionThresholdMs = leakDetectionThresholdMs;
+    }
+
+    public boolean isTrackBorrowStacks() {
+        return trackBorrowStacks;
+    }
+
+    public void setTrackBorrowStacks(boolean trackBorrowStacks) {
+        this.trackBorrowStacks = trackBorrowStacks;
+    }
+
+    public int getReadTimeoutSeconds() {
+        return readTimeoutSeconds;
+    }
+
+    public void setReadTimeoutSeconds(int readTimeoutSeconds) {
+        this.readTimeoutSeconds = readTimeoutSeconds;
+    }
+
+    public int getWriteTimeoutSeconds() {
+        return writeTimeoutSeconds;
+    }
+
+    public void setWriteTimeoutSeconds(int writeTimeoutSeconds) {
+        this.writeTimeoutSeconds = writeTimeoutSeconds;
+    }
+}
@@ -0,0 +1,344 @@
+package com.ecommerce.db;
+
+import java.lang.reflect.InvocationHandler;
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Method;
+import java.lang.reflect.Proxy;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.SQLException;
+import java.sql.SQLNonTransientConnectionException;
+import java.sql.Statement;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * A physical connection owned by a {@link ConnectionPool}.
+ * Callers never see the physical connection directly; each borrow hands out a
+ * new proxy whose close() returns the connection to the pool. Prepared
+ * statements created through the proxy are served from a per-connection
+ * {@link StatementCache} when it is enabled.
+ *
+ * Every statement handed out gets the pool's read or write query timeout, and
+ * every execute call asks the pool's {@link CircuitBreaker} for permission
+ * and reports its outcome and latency to it. Executing anything but a query
+ * records a write for {@link ReadYourWrites}, so later reads on the thread go
+ * to the primary. While a {@link StatementCapture} listener is installed,
+ * statements also record their parameters and report each execute call to
+ * it.
+ */
+final class PooledConnection {
+    private final ConnectionPool pool;
+    private final Connection physical;
+    private final StatementCache statementCache;
+    private final int readTimeoutSeconds;
+    private final int writeTimeoutSeconds;
+    private final long createdAt;
+    private volatile long lastReturnedAt;
+    private volatile boolean broken;
+
+    PooledConnection(ConnectionPool pool, Connection physical, PoolConfig config) {
+        this.pool = pool;
+        this.physical = physical;
+        this.statementCache = config.getStatementCacheSize() > 0
+                ? new StatementCache(config.getStatementCacheSize())
+                : null;
+        this.readTimeoutSeconds = config.getReadTimeoutSeconds();
+        this.writeTimeoutSeconds = config.getWriteTimeoutSeconds();
+        this.createdAt = System.currentTimeMillis();
+        this.lastReturnedAt = createdAt;
+    }
+
+    /**
+     * Hand out a new proxy for this connection
+     *
+     * @param record Borrow bookkeeping, handed back to the pool on close
+     */
+    Connection lease(BorrowRecord record) {
+        return (Connection) Proxy.newProxyInstance(
+                Connection.class.getClassLoader(),
+                new Class<?>[] { Connection.class },
+                new Lease(record));
+    }
+
+    Connection physical() {
+        return physical;
+    }
+
+    long getCreatedAt() {
+        return createdAt;
+    }
+
+    long getLastReturnedAt() {
+        return lastReturnedAt;
+    }
+
+    void markReturned() {
+        this.lastReturnedAt = System.currentTimeMillis();
+    }
+
+    boolean isBroken() {
+        return broken;
+    }
+
+    /**
+     * Close cached statements and the physical connection, ignoring errors
+     */
+    void closePhysical() {
+        if (statementCache != null) {
+            statementCache.clear();
+        }
+        try {
+            physical.close();
+        } catch (SQLException e) {
+            System.err.println("Error closing pooled connection: " + e.getMessage());
+        }
+    }
+
+    /**
+     * A connection error means the socket is unusable and the connection must
+     * not go back into the pool.
+     */
+    private static boolean isFatal(SQLException e) {
+        String state = e.getSQLState();
+        return e instanceof SQLNonTransientConnectionException
+                || (state != null && state.startsWith("08"));
+    }
+
+    /**
+     * Queries get the read timeout; INSERT, UPDATE, DELETE and everything else
+     * get the write timeout. Plain statements have no SQL yet and are only
+     * used for queries in this codebase, so they get the read timeout.
+     */
+    private int queryTimeoutFor(String sql) {
+        return sql == null || isQuery(sql) ? readTimeoutSeconds : writeTimeoutSeconds;
+    }
+
+    private static boolean isQuery(String sql) {
+        String head = sql.stripLeading();
+        int end = 0;
+        while (end < head.length() && Character.isLetter(head.charAt(end))) {
+            end++;
+        }
+        switch (head.substring(0, end).toUpperCase()) {
+            case "SELECT":
+            case "WITH":
+            case "SHOW":
+            case "EXPLAIN":
+                return true;
+            default:
+                return false;
+        }
+    }
+
+    private Object invokeOnTarget(Object target, Method method, Object[] args) throws Throwable {
+        try {
+            return method.invoke(target, args);
+        } catch (InvocationTargetException e) {
+            Throwable cause = e.getCause();
+            if (cause instanceof SQLException && isFatal((SQLException) cause)) {
+                broken = true;
+            }
+            throw cause;
+        }
+    }
+
+    /**
+     * Invocation handler for one borrow of the physical connection
+     */
+    private final class Lease implements InvocationHandler {
+        private final BorrowRecord record;
+        private boolean closed;
+
+        Lease(BorrowRecord record) {
+            this.record = record;
+        }
+
+        @Override
+        public Object invoke(Object proxy, Method method, Object[] args) throws Throwable {
+            switch (method.getName()) {
+                case "close":
+                    if (!closed) {
+                        closed = true;
+                        pool.release(PooledConnection.this, record);
+                    }
+                    return null;
+                case "isClosed":
+                    return closed || physical.isClosed();
+                case "equals":
+                    return proxy == args[0];
+                case "hashCode":
+                    return System.identityHashCode(proxy);
+                case "toString":
+                    return "PooledConnection[" + pool.getName() + (closed ? ", returned" : "") + "]";
+                default:
+                    break;
+            }
+
+            if (closed) {
+                throw new SQLException("Connection has already been returned to the pool");
+            }
+
+            if (method.getName().equals("prepareStatement") && statementCache != null && isCacheable(args)) {
+                int autoGeneratedKeys = args.length == 2 ? (Integer) args[1] : Statement.NO_GENERATED_KEYS;
+                String key = StatementCache.key((String) args[0], autoGeneratedKeys);
+                PreparedStatement cached = statementCache.take(key);
+                if (cached == null || cached.isClosed()) {
+                    pool.recordStatementCacheMiss();
+                    cached = (PreparedStatement) invokeOnTarget(physical, method, args);
+                } else {
+                    pool.recordStatementCacheHit();
+                }
+                cached.setQueryTimeout(queryTimeoutFor((String) args[0]));
+                return wrap(PreparedStatement.class, cached, (Connection) proxy, key, (String) args[0]);
+            }
+
+            Object result = invokeOnTarget(physical, method, args);
+            String sql = args != null && args.length > 0 && args[0] instanceof String ? (String) args[0] : null;
+            if (result instanceof Statement) {
+                ((Statement) result).setQueryTimeout(queryTimeoutFor(sql));
+            }
+            if (result instanceof PreparedStatement) {
+                return wrap(PreparedStatement.class, (Statement) result, (Connection) proxy, null, sql);
+            }
+            if (result instanceof Statement) {
+                return wrap(Statement.class, (Statement) result, (Connection) proxy, null, null);
+            }
+            return result;
+        }
+
+        /**
+         * Only prepareStatement(String) and prepareStatement(String, int
+         * autoGeneratedKeys) are cached; statements with custom result set
+         * options are always prepared fresh.
+         */
+        private boolean isCacheable(Object[] args) {
+            return args.length == 1
+                    || (args.length == 2 && args[1] instanceof Integer);
+        }
+
+        private <T extends Statement> T wrap(Class<T> type, Statement target, Connection owner, String cacheKey,
+                String sql) {
+            return type.cast(Proxy.newProxyInstance(
+                    type.getClassLoader(),
+                    new Class<?>[] { type },
+                    new StatementHandler(target, owner, cacheKey, sql)));
+        }
+    }
+
+    /**
+     * Invocation handler for statements. Closing a cached statement puts it
+     * back into the statement cache instead of closing it. Execute calls are
+     * timed and reported to the circuit breaker.
+     */
+    private final class StatementHandler implements InvocationHandler {
+        private final Statement target;
+        private final Connection owner;
+        private final String cacheKey;
+        private final String sql;
+        private List<Object> parameters;
+        private boolean closed;
+
+        StatementHandler(Statement target, Connection owner, String cacheKey, String sql) {
+            this.target = target;
+            this.owner = owner;
+            this.cacheKey = cacheKey;
+            this.sql = sql;
+        }
+
+        @Override
+        public Object invoke(Object proxy, Method method, Object[] args) throws Throwable {
+            switch (method.getName()) {
+                case "close":
+                    if (!closed) {
+                        closed = true;
+                        returnToCache();
+                    }
+                    return null;
+                case "isClosed":
+                    return closed || target.isClosed();
+                case "getConnection":
+                    return owner;
+                case "equals":
+                    return proxy == args[0];
+                case "hashCode":
+                    return System.identityHashCode(proxy);
+                case "toString":
+                    return target.toString();
+                default:
+                    break;
+            }
+
+            if (closed) {
+                throw new SQLException("Statement is closed");
+            }
+            StatementCapture.Listener listener = StatementCapture.listener();
+            if (!method.getName().startsWith("execute")) {
+                if (listener != null) {
+                    recordParameter(method.getName(), args);
+                }
+                return invokeOnTarget(target, method, args);
+            }
+            String executed = args != null && args.length > 0 && args[0] instanceof String ? (String) args[0] : sql;
+            if (listener != null) {
+                listener.beforeExecute(physical, executed,
+                        parameters != null ? new ArrayList<>(parameters) : new ArrayList<>());
+            }
+            if (!method.getName().equals("executeQuery") && (executed == null || !isQuery(executed))) {
+                ReadYourWrites.recordWrite();
+            }
+
+            CircuitBreaker breaker = pool.getCircuitBreaker();
+            breaker.acquirePermission();
+            long startedAt = System.nanoTime();
+            try {
+                Object result = invokeOnTarget(target, method, args);
+                breaker.recordSuccess(System.nanoTime() - startedAt);
+                return result;
+            } catch (Throwable t) {
+                breaker.recordFailure(t, System.nanoTime() - startedAt);
+                throw t;
+            }
+        }
+
+        /**
+         * Remember a setXxx(index, value, ...) call; setNull records null
+         */
+        private void recordParameter(String name, Object[] args) {
+            if (name.equals("clearParameters")) {
+                if (parameters != null) {
+                    parameters.clear();
+                }
+                return;
+            }
+            if (!name.startsWith("set") || !(target instanceof PreparedStatement)
+                    || args == null || args.length < 2 || !(args[0] instanceof Integer)) {
+                return;
+            }
+            if (parameters == null) {
+                parameters = new ArrayList<>();
+            }
+            int index = (Integer) args[0];
+            while (parameters.size() < index) {
+                parameters.add(null);
+            }
+            parameters.set(index - 1, name.equals("setNull") ? null : args[1]);
+        }
+
+        private void returnToCache() throws SQLException {
+            if (cacheKey == null || broken || physical.isClosed()) {
+                target.close();
+                return;
+            }
+            try {
+                PreparedStatement stmt = (PreparedStatement) target;
+                stmt.clearParameters();
+                stmt.clearBatch();
+                stmt.clearWarnings();
+                statementCache.put(cacheKey, stmt);
+            } catch (SQLException e) {
+                target.close();
+            }
+        }
+    }
+}
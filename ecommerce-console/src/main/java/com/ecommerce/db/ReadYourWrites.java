@@ -0,0 +1,70 @@
+package com.ecommerce.db;
+
+/**
+ * Tracks writes made by the current thread so that reads issued right after a
+ * write go to the primary instead of a replica that may not have caught up.
+ *
+ * Inside an HTTP request (between beginRequest and endRequest) a write pins
+ * every later read in that request to the primary. Outside a request, such as
+ * in the console UI, the pin lasts for the configured sticky window.
+ */
+final class ReadYourWrites {
+    private static final ThreadLocal<State> STATE = ThreadLocal.withInitial(State::new);
+
+    private ReadYourWrites() {
+    }
+
+    static void beginRequest() {
+        State state = STATE.get();
+        state.inRequest = true;
+        state.lastWriteAt = 0;
+    }
+
+    static void endRequest() {
+        STATE.remove();
+    }
+
+    /**
+     * @return A copy of this thread's state, for work handed to another
+     *         thread (see {@link DbExecutor})
+     */
+    static State capture() {
+        State current = STATE.get();
+        State copy = new State();
+        copy.inRequest = current.inRequest;
+        copy.lastWriteAt = current.lastWriteAt;
+        return copy;
+    }
+
+    /**
+     * Continue with captured state on this thread until endRequest
+     */
+    static void adopt(State state) {
+        STATE.set(state);
+    }
+
+    static void recordWrite() {
+        STATE.get().lastWriteAt = System.currentTimeMillis();
+    }
+
+    /**
+     * @param stickyWindowMs How long a write pins reads outside a request
+     * @return true if reads on this thread must go to the primary
+     */
+    static boolean isPinnedToPrimary(long stickyWindowMs) {
+        State state = STATE.get();
+        if (state.lastWriteAt == 0) {
+            return false;
+        }
+        if (state.inRequest || System.currentTimeMillis() - state.lastWriteAt <= stickyWindowMs) {
+            return true;
+        }
+        state.lastWriteAt = 0;
+        return false;
+    }
+
+    static final class State {
+        private boolean inRequest;
+        private long lastWriteAt;
+    }
+}
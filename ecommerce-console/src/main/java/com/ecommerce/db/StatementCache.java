@@ -0,0 +1,79 @@
+package com.ecommerce.db;
+
+import java.sql.PreparedStatement;
+import java.sql.SQLException;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Per-connection LRU cache of prepared statements keyed by SQL text.
+ *
+ * A statement is taken out of the cache while a DAO uses it and put back when
+ * the DAO closes it, so two concurrent uses of the same SQL on one connection
+ * never share a statement. Statements evicted from the cache are closed.
+ */
+final class StatementCache {
+    private final LinkedHashMap<String, PreparedStatement> idle;
+
+    StatementCache(int maxSize) {
+        this.idle = new LinkedHashMap<>(16, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<String, PreparedStatement> eldest) {
+                if (size() > maxSize) {
+                    closeQuietly(eldest.getValue());
+                    return true;
+                }
+                return false;
+            }
+        };
+    }
+
+    /**
+     * Cache key for a prepareStatement call
+     */
+    static String key(String sql, int autoGeneratedKeys) {
+        return autoGeneratedKeys + ":" + sql;
+    }
+
+    /**
+     * Take an idle statement for the key, or null if none is cached
+     */
+    PreparedStatement take(String key) {
+        return idle.remove(key);
+    }
+
+    /**
+     * Put a statement back after its user closed it
+     */
+    void put(String key, PreparedStatement stmt) {
+        PreparedStatement displaced = idle.put(key, stmt);
+        if (displaced != null && displaced != stmt) {
+            closeQuietly(displaced);
+        }
+    }
+
+    int size() {
+        return idle.size();
+    }
+
+    /**
+     * Close every cached statement
+     */
+    void clear() {
+        List<PreparedStatement> statements = new ArrayList<>(idle.values());
+        idle.clear();
+        for (PreparedStatement stmt : statements) {
+            closeQuietly(stmt);
+        }
+    }
+
+    private static void closeQuietly(PreparedStatement stmt) {
+        try {
+            stmt.close();
+        } catch (SQLException e) {
+            // The statement is being discarded anyway
+        }
+    }
+}
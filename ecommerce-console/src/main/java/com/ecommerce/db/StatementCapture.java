@@ -0,0 +1,50 @@
+package com.ecommerce.db;
+
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.util.List;
+
+/**
+ * Hook that sees every statement the pools execute, just before it runs.
+ *
+ * While a listener is installed, pooled statements remember the parameters
+ * bound to them and hand the SQL, those parameters and the physical
+ * connection to the listener on each execute call. With no listener
+ * installed nothing is recorded. Used by the query plan check to EXPLAIN
+ * each DAO statement with its real parameters.
+ */
+public final class StatementCapture {
+    private static volatile Listener listener;
+
+    /**
+     * Called before each execute call on a pooled statement
+     */
+    @FunctionalInterface
+    public interface Listener {
+        /**
+         * @param connection Physical connection the statement runs on; it
+         *                   may be used for extra statements, which are not
+         *                   captured
+         * @param sql        Statement text
+         * @param parameters Bound parameters in index order (first is index
+         *                   1), null where unset or set to NULL
+         * @throws SQLException to fail the execute call
+         */
+        void beforeExecute(Connection connection, String sql, List<Object> parameters) throws SQLException;
+    }
+
+    private StatementCapture() {
+    }
+
+    public static void install(Listener captureListener) {
+        listener = captureListener;
+    }
+
+    public static void remove() {
+        listener = null;
+    }
+
+    static Listener listener() {
+        return listener;
+    }
+}
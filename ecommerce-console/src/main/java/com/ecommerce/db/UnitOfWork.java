@@ -0,0 +1,175 @@
+package com.ecommerce.db;
+
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Proxy;
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Transaction scope shared by several DAO calls.
+ *
+ * While work runs inside execute(), every DatabaseConnection.getConnection()
+ * and getReadConnection() call on the same thread returns one connection per
+ * pool with autocommit off. DAOs keep their usual try-with-resources code;
+ * closing the shared connection is a no-op. The transaction commits once when
+ * the outermost execute() returns and rolls back if it throws. Nested
+ * execute() calls join the outer unit of work.
+ *
+ * The scope is bound to the current thread, so DAO calls handed to other
+ * threads do not take part in it.
+ */
+public final class UnitOfWork {
+    private static final ThreadLocal<UnitOfWork> CURRENT = new ThreadLocal<>();
+
+    private final Map<ConnectionPool, Connection> connections = new LinkedHashMap<>();
+    private final Map<ConnectionPool, Connection> sharedViews = new LinkedHashMap<>();
+
+    /**
+     * Work that runs inside a unit of work
+     */
+    @FunctionalInterface
+    public interface Work<T> {
+        T execute() throws SQLException;
+    }
+
+    /**
+     * Work without a result
+     */
+    @FunctionalInterface
+    public interface VoidWork {
+        void execute() throws SQLException;
+    }
+
+    private UnitOfWork() {
+    }
+
+    /**
+     * Run work in a transaction, or join the current one
+     *
+     * @param work DAO calls to run
+     * @return Result of the work
+     * @throws SQLException if the work or the commit fails (after rollback)
+     */
+    public static <T> T execute(Work<T> work) throws SQLException {
+        if (CURRENT.get() != null) {
+            return work.execute();
+        }
+
+        UnitOfWork unitOfWork = new UnitOfWork();
+        CURRENT.set(unitOfWork);
+        try {
+            T result = work.execute();
+            unitOfWork.commit();
+            return result;
+        } catch (Throwable t) {
+            unitOfWork.rollback(t);
+            throw t;
+        } finally {
+            CURRENT.remove();
+            unitOfWork.close();
+        }
+    }
+
+    /**
+     * Run work without a result in a transaction, or join the current one
+     *
+     * @param work DAO calls to run
+     * @throws SQLException if the work or the commit fails (after rollback)
+     */
+    public static void run(VoidWork work) throws SQLException {
+        execute(() -> {
+            work.execute();
+            return null;
+        });
+    }
+
+    /**
+     * @return true if the current thread is inside a unit of work
+     */
+    public static boolean isActive() {
+        return CURRENT.get() != null;
+    }
+
+    static UnitOfWork current() {
+        return CURRENT.get();
+    }
+
+    /**
+     * Get this unit of work's connection for a pool, borrowing it on first
+     * use
+     */
+    Connection connectionFor(ConnectionPool pool) throws SQLException {
+        Connection shared = sharedViews.get(pool);
+        if (shared != null) {
+            return shared;
+        }
+
+        Connection conn = pool.getConnection();
+        try {
+            conn.setAutoCommit(false);
+        } catch (SQLException e) {
+            conn.close();
+            throw e;
+        }
+        shared = nonClosing(conn);
+        connections.put(pool, conn);
+        sharedViews.put(pool, shared);
+        return shared;
+    }
+
+    private void commit() throws SQLException {
+        for (Connection conn : connections.values()) {
+            conn.commit();
+        }
+    }
+
+    private void rollback(Throwable cause) {
+        for (Connection conn : connections.values()) {
+            try {
+                conn.rollback();
+            } catch (SQLException e) {
+                cause.addSuppressed(e);
+            }
+        }
+    }
+
+    private void close() {
+        List<Connection> borrowed = new ArrayList<>(connections.values());
+        connections.clear();
+        sharedViews.clear();
+        for (Connection conn : borrowed) {
+            DatabaseConnection.closeConnection(conn);
+        }
+    }
+
+    /**
+     * Wrap a connection so DAO try-with-resources blocks do not return it to
+     * the pool before the unit of work ends
+     */
+    private static Connection nonClosing(Connection conn) {
+        return (Connection) Proxy.newProxyInstance(
+                Connection.class.getClassLoader(),
+                new Class<?>[] { Connection.class },
+                (proxy, method, args) -> {
+                    switch (method.getName()) {
+                        case "close":
+                            return null;
+                        case "equals":
+                            return proxy == args[0];
+                        case "hashCode":
+                            return System.identityHashCode(proxy);
+                        default:
+                            break;
+                    }
+                    try {
+                        return method.invoke(conn, args);
+                    } catch (InvocationTargetException e) {
+                        throw e.getCause();
+                    }
+                });
+    }
+}
@@ -15,6 +15,7 @@ public class Order {
     private Timestamp shippedDate;
     private Timestamp deliveredDate;
     private String notes;
+    private Integer version;
     private Timestamp createdAt;
     private Timestamp updatedAt;
 
@@ -121,6 +122,14 @@ public class Order {
         this.notes = notes;
     }
 
+    public Integer getVersion() {
+        return version;
+    }
+
+    public void setVersion(Integer version) {
+        this.version = version;
+    }
+
     public Timestamp getCreatedAt() {
         return createdAt;
     }
@@ -0,0 +1,51 @@
+package com.ecommerce.model;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * An order with its customer and lines, loaded in one go for detail views.
+ */
+public class OrderDetails {
+    private Order order;
+    private UserSummary customer;
+    private List<OrderLine> items = new ArrayList<>();
+
+    // Constructors
+    public OrderDetails() {
+    }
+
+    // Getters and Setters
+    public Order getOrder() {
+        return order;
+    }
+
+    public void setOrder(Order order) {
+        this.order = order;
+    }
+
+    public UserSummary getCustomer() {
+        return customer;
+    }
+
+    public void setCustomer(UserSummary customer) {
+        this.customer = customer;
+    }
+
+    public List<OrderLine> getItems() {
+        return items;
+    }
+
+    public void setItems(List<OrderLine> items) {
+        this.items = items;
+    }
+
+    @Override
+    public String toString() {
+        return "OrderDetails{" +
+                "order=" + order +
+                ", customer=" + customer +
+                ", items=" + items +
+                '}';
+    }
+}
@@ -0,0 +1,72 @@
+package com.ecommerce.model;
+
+import java.math.BigDecimal;
+import java.sql.Timestamp;
+
+/**
+ * Aggregates over a set of orders, computed by the database: how many there
+ * are, what they add up to and when the first and last were placed. The
+ * dates are null when there are no orders.
+ */
+public class OrderStats {
+    private Long orderCount;
+    private BigDecimal totalAmount;
+    private Timestamp firstOrderDate;
+    private Timestamp lastOrderDate;
+
+    // Constructors
+    public OrderStats() {
+        this.orderCount = 0L;
+        this.totalAmount = BigDecimal.ZERO;
+    }
+
+    public OrderStats(Long orderCount, BigDecimal totalAmount, Timestamp firstOrderDate, Timestamp lastOrderDate) {
+        this.orderCount = orderCount;
+        this.totalAmount = totalAmount;
+        this.firstOrderDate = firstOrderDate;
+        this.lastOrderDate = lastOrderDate;
+    }
+
+    // Getters and Setters
+    public Long getOrderCount() {
+        return orderCount;
+    }
+
+    public void setOrderCount(Long orderCount) {
+        this.orderCount = orderCount;
+    }
+
+    public BigDecimal getTotalAmount() {
+        return totalAmount;
+    }
+
+    public void setTotalAmount(BigDecimal totalAmount) {
+        this.totalAmount = totalAmount;
+    }
+
+    public Timestamp getFirstOrderDate() {
+        return firstOrderDate;
+    }
+
+    public void setFirstOrderDate(Timestamp firstOrderDate) {
+        this.firstOrderDate = firstOrderDate;
+    }
+
+    public Timestamp getLastOrderDate() {
+        return lastOrderDate;
+    }
+
+    public void setLastOrderDate(Timestamp lastOrderDate) {
+        this.lastOrderDate = lastOrderDate;
+    }
+
+    @Override
+    public String toString() {
+        return "OrderStats{" +
+                "orderCount=" + orderCount +
+                ", totalAmount=" + totalAmount +
+                ", firstOrderDate=" + firstOrderDate +
+                ", lastOrderDate=" + lastOrderDate +
+                '}';
+    }
+}
@@ -0,0 +1,50 @@
+package com.ecommerce.model;
+
+import java.util.List;
+
+/**
+ * One page of a keyset-paginated list. nextCursor is an opaque token that
+ * fetches the following page; it is null on the last page.
+ */
+public class Page<T> {
+    private List<T> items;
+    private String nextCursor;
+
+    // Constructors
+    public Page() {
+    }
+
+    public Page(List<T> items, String nextCursor) {
+        this.items = items;
+        this.nextCursor = nextCursor;
+    }
+
+    // Getters and Setters
+    public List<T> getItems() {
+        return items;
+    }
+
+    public void setItems(List<T> items) {
+        this.items = items;
+    }
+
+    public String getNextCursor() {
+        return nextCursor;
+    }
+
+    public void setNextCursor(String nextCursor) {
+        this.nextCursor = nextCursor;
+    }
+
+    public boolean isHasMore() {
+        return nextCursor != null;
+    }
+
+    @Override
+    public String toString() {
+        return "Page{" +
+                "items=" + (items != null ? items.size() : 0) +
+                ", nextCursor='" + nextCursor + '\'' +
+                '}';
+    }
+}
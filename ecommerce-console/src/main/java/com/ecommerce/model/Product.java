@@ -12,6 +12,7 @@ public class Product {
     private Integer stock;
     private String sku;
     private Boolean isActive;
+    private Integer version;
     private Timestamp createdAt;
     private Timestamp updatedAt;
 
@@ -94,6 +95,14 @@ public class Product {
         this.isActive = isActive;
     }
 
+    public Integer getVersion() {
+        return version;
+    }
+
+    public void setVersion(Integer version) {
+        this.version = version;
+    }
+
     public Timestamp getCreatedAt() {
         return createdAt;
     }
@@ -0,0 +1,57 @@
+package com.ecommerce.model;
+
+import java.util.List;
+
+/**
+ * Body of a bulk order status change: move these orders from one status to
+ * another.
+ */
+public class StatusTransitionRequest {
+    private List<Integer> orderIds;
+    private String fromStatus;
+    private String toStatus;
+
+    // Constructors
+    public StatusTransitionRequest() {
+    }
+
+    public StatusTransitionRequest(List<Integer> orderIds, String fromStatus, String toStatus) {
+        this.orderIds = orderIds;
+        this.fromStatus = fromStatus;
+        this.toStatus = toStatus;
+    }
+
+    // Getters and Setters
+    public List<Integer> getOrderIds() {
+        return orderIds;
+    }
+
+    public void setOrderIds(List<Integer> orderIds) {
+        this.orderIds = orderIds;
+    }
+
+    public String getFromStatus() {
+        return fromStatus;
+    }
+
+    public void setFromStatus(String fromStatus) {
+        this.fromStatus = fromStatus;
+    }
+
+    public String getToStatus() {
+        return toStatus;
+    }
+
+    public void setToStatus(String toStatus) {
+        this.toStatus = toStatus;
+    }
+
+    @Override
+    public String toString() {
+        return "StatusTransitionRequest{" +
+                "orderIds=" + orderIds +
+                ", fromStatus='" + fromStatus + '\'' +
+                ", toStatus='" + toStatus + '\'' +
+                '}';
+    }
+}
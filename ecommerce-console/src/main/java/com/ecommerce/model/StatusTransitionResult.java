@@ -0,0 +1,60 @@
+package com.ecommerce.model;
+
+/**
+ * Outcome of a bulk status transition for one order: whether it moved, and
+ * the status it has now. Orders that were not in the expected status are
+ * left as they are.
+ */
+public class StatusTransitionResult {
+    public static final String TRANSITIONED = "TRANSITIONED";
+    public static final String WRONG_STATUS = "WRONG_STATUS";
+    public static final String NOT_FOUND = "NOT_FOUND";
+
+    private Integer orderId;
+    private String outcome;
+    private String status;
+
+    // Constructors
+    public StatusTransitionResult() {
+    }
+
+    public StatusTransitionResult(Integer orderId, String outcome, String status) {
+        this.orderId = orderId;
+        this.outcome = outcome;
+        this.status = status;
+    }
+
+    // Getters and Setters
+    public Integer getOrderId() {
+        return orderId;
+    }
+
+    public void setOrderId(Integer orderId) {
+        this.orderId = orderId;
+    }
+
+    public String getOutcome() {
+        return outcome;
+    }
+
+    public void setOutcome(String outcome) {
+        this.outcome = outcome;
+    }
+
+    public String getStatus() {
+        return status;
+    }
+
+    public void setStatus(String status) {
+        this.status = status;
+    }
+
+    @Override
+    public String toString() {
+        return "StatusTransitionResult{" +
+                "orderId=" + orderId +
+                ", outcome='" + outcome + '\'' +
+                ", status='" + status + '\'' +
+                '}';
+    }
+}
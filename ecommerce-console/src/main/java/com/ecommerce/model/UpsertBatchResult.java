@@ -0,0 +1,66 @@
+package com.ecommerce.model;
+
+/**
+ * Outcome of one committed batch of a bulk upsert: how many of its rows
+ * were new and how many replaced an existing row.
+ */
+public class UpsertBatchResult {
+    private Integer batch;
+    private Integer rows;
+    private Integer inserted;
+    private Integer updated;
+
+    // Constructors
+    public UpsertBatchResult() {
+    }
+
+    public UpsertBatchResult(Integer batch, Integer rows, Integer inserted, Integer updated) {
+        this.batch = batch;
+        this.rows = rows;
+        this.inserted = inserted;
+        this.updated = updated;
+    }
+
+    // Getters and Setters
+    public Integer getBatch() {
+        return batch;
+    }
+
+    public void setBatch(Integer batch) {
+        this.batch = batch;
+    }
+
+    public Integer getRows() {
+        return rows;
+    }
+
+    public void setRows(Integer rows) {
+        this.rows = rows;
+    }
+
+    public Integer getInserted() {
+        return inserted;
+    }
+
+    public void setInserted(Integer inserted) {
+        this.inserted = inserted;
+    }
+
+    public Integer getUpdated() {
+        return updated;
+    }
+
+    public void setUpdated(Integer updated) {
+        this.updated = updated;
+    }
+
+    @Override
+    public String toString() {
+        return "UpsertBatchResult{" +
+                "batch=" + batch +
+                ", rows=" + rows +
+                ", inserted=" + inserted +
+                ", updated=" + updated +
+                '}';
+    }
+}
@@ -0,0 +1,86 @@
+package com.ecommerce.perf;
+
+import com.ecommerce.dao.ProductDAO;
+import com.ecommerce.dao.ProductDAOImpl;
+import com.ecommerce.db.ConnectionPool;
+import com.ecommerce.db.DatabaseConnection;
+import com.ecommerce.db.PoolConfig;
+
+import java.sql.SQLException;
+import java.util.Arrays;
+
+/**
+ * Benchmark: ProductDAOImpl.getById latency with and without the prepared
+ * statement cache.
+ *
+ * Runs the same lookup against three pool configurations:
+ * 1. Client-side prepare, no statement cache (the previous behaviour)
+ * 2. Server-side prepare, no statement cache
+ * 3. Server-side prepare with the per-connection statement cache
+ *
+ * PREREQUISITES:
+ * - Database must be running with the seed data loaded
+ *
+ * USAGE:
+ * mvn exec:java -Dexec.mainClass="com.ecommerce.perf.ProductDAOBenchmark"
+ * -Dexec.args="[productId] [iterations]"
+ */
+public class ProductDAOBenchmark {
+    private static final int WARMUP_ITERATIONS = 1_000;
+
+    public static void main(String[] args) throws SQLException {
+        int productId = args.length > 0 ? Integer.parseInt(args[0]) : 1;
+        int iterations = args.length > 1 ? Integer.parseInt(args[1]) : 5_000;
+
+        System.out.println("=================================================");
+        System.out.println("  ProductDAOImpl.getById Benchmark");
+        System.out.println("=================================================");
+        System.out.println("Product ID: " + productId + ", iterations: " + iterations);
+        System.out.println();
+
+        PoolConfig base = DatabaseConnection.getPool().getConfig();
+
+        run("Client-side prepare, no cache", base, false, 0, productId, iterations);
+        run("Server-side prepare, no cache", base, true, 0, productId, iterations);
+        run("Server-side prepare, cached", base, true, Math.max(base.getStatementCacheSize(), 1),
+                productId, iterations);
+
+        DatabaseConnection.shutdown();
+    }
+
+    private static void run(String label, PoolConfig base, boolean serverPrepare, int cacheSize,
+            int productId, int iterations) throws SQLException {
+        PoolConfig config = new PoolConfig(base);
+        config.setJdbcUrl(DatabaseConnection.buildJdbcUrl(serverPrepare, true));
+        config.setStatementCacheSize(cacheSize);
+        DatabaseConnection.reconfigure(config);
+
+        ProductDAO productDAO = new ProductDAOImpl();
+        for (int i = 0; i < WARMUP_ITERATIONS; i++) {
+            productDAO.getById(productId);
+        }
+
+        long[] samples = new long[iterations];
+        for (int i = 0; i < iterations; i++) {
+            long start = System.nanoTime();
+            productDAO.getById(productId);
+            samples[i] = System.nanoTime() - start;
+        }
+        Arrays.sort(samples);
+
+        ConnectionPool pool = DatabaseConnection.getPool();
+        System.out.println("--- " + label + " ---");
+        System.out.printf("  avg: %8.1f us%n", Arrays.stream(samples).average().orElse(0) / 1_000.0);
+        System.out.printf("  p50: %8.1f us%n", percentile(samples, 0.50) / 1_000.0);
+        System.out.printf("  p95: %8.1f us%n", percentile(samples, 0.95) / 1_000.0);
+        System.out.printf("  p99: %8.1f us%n", percentile(samples, 0.99) / 1_000.0);
+        System.out.println("  statement cache hits/misses: "
+                + pool.getStatementCacheHits() + "/" + pool.getStatementCacheMisses());
+        System.out.println();
+    }
+
+    private static long percentile(long[] sorted, double fraction) {
+        int index = (int) Math.ceil(fraction * sorted.length) - 1;
+        return sorted[Math.max(0, Math.min(index, sorted.length - 1))];
+    }
+}
@@ -0,0 +1,532 @@
+package com.ecommerce.perf;
+
+import com.ecommerce.dao.CategoryDAO;
+import com.ecommerce.dao.CategoryDAOImpl;
+import com.ecommerce.dao.OrderDAO;
+import com.ecommerce.dao.OrderDAOImpl;
+import com.ecommerce.dao.OrderItemDAO;
+import com.ecommerce.dao.OrderItemDAOImpl;
+import com.ecommerce.dao.ProductDAO;
+import com.ecommerce.dao.ProductDAOImpl;
+import com.ecommerce.dao.UserDAO;
+import com.ecommerce.dao.UserDAOImpl;
+import com.ecommerce.db.DatabaseConnection;
+import com.ecommerce.db.PoolConfig;
+import com.ecommerce.db.StatementCapture;
+import com.ecommerce.model.Category;
+import com.ecommerce.model.Order;
+import com.ecommerce.model.OrderItem;
+import com.ecommerce.model.Page;
+import com.ecommerce.model.Product;
+import com.ecommerce.model.ProductSummary;
+import com.ecommerce.model.User;
+import com.ecommerce.model.UserSummary;
+
+import java.io.IOException;
+import java.lang.reflect.Method;
+import java.math.BigDecimal;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
+import java.util.stream.Collectors;
+import java.util.stream.IntStream;
+import java.util.stream.Stream;
+
+/**
+ * Query plan check: EXPLAIN every statement the DAOs run and fail on full
+ * table scans and filesorts.
+ *
+ * 1. The database named on the command line is dropped and recreated from
+ *    sql/01_schema.sql, then filled with generated rows (ORDERS orders, two
+ *    items each, ORDERS / 2 products, ORDERS / 5 users) and analyzed, so the
+ *    optimizer sees realistic table sizes instead of the seed data
+ * 2. A {@link StatementCapture} listener runs EXPLAIN with the real
+ *    parameters before each statement executes
+ * 3. Every method of the five DAO interfaces is called; a plan row with
+ *    type ALL or "Using filesort" is a failure unless the method is listed
+ *    below as reading or sorting the whole table on purpose, and a DAO method
+ *    that is not called is a failure too, so new methods must be added here
+ *
+ * INSERT statements have no plan to check and are skipped. A statement
+ * that cannot be explained, a DAO call that throws and a DAO call that runs
+ * no statement are failures too, so no statement passes unchecked. The exit
+ * code is 1 when the check fails.
+ *
+ * PREREQUISITES:
+ * - A scratch MySQL server: DB_NAME must name a database that may be dropped,
+ *   and the same name must be passed as the first argument to confirm it
+ * - No read replica or order shards configured (DB_REPLICA_HOST and
+ *   DB_ORDER_SHARDS unset), so every statement runs on the primary
+ *
+ * USAGE:
+ * mvn exec:java -Dexec.mainClass="com.ecommerce.perf.QueryPlanCheck"
+ * -Dexec.args="database [orders] [schemaFile]"
+ */
+public class QueryPlanCheck {
+    private static final int PAGE_SIZE = 20;
+    private static final int STREAM_ROWS = 100;
+
+    private static final String SEQUENCE = "WITH RECURSIVE seq (n) AS "
+            + "(SELECT 1 UNION ALL SELECT n + 1 FROM seq WHERE n < ?) ";
+
+    private static final String EVERY_ROW = "returns every row";
+    private static final String SORTED_EVERY_ROW = "sorting every row is cheaper than reading them through the index";
+
+    /**
+     * Methods allowed a full table scan, with the reason
+     */
+    private static final Map<String, String> FULL_SCAN_ALLOWED = Map.ofEntries(
+            Map.entry("CategoryDAO.getAll", EVERY_ROW),
+            Map.entry("ProductDAO.getAll", EVERY_ROW),
+            Map.entry("ProductDAO.getAllSummaries", EVERY_ROW),
+            Map.entry("ProductDAO.streamAll", EVERY_ROW),
+            Map.entry("UserDAO.getAll", EVERY_ROW),
+            Map.entry("UserDAO.getAllSummaries", EVERY_ROW),
+            Map.entry("UserDAO.streamAll", EVERY_ROW),
+            Map.entry("OrderDAO.getAll", EVERY_ROW),
+            Map.entry("OrderDAO.streamAll", EVERY_ROW),
+            Map.entry("OrderDAO.getStatsByStatus", "groups every order"),
+            Map.entry("OrderItemDAO.getAll", EVERY_ROW),
+            Map.entry("OrderItemDAO.streamAll", EVERY_ROW));
+
+    /**
+     * Methods allowed a filesort, with the reason
+     */
+    private static final Map<String, String> FILESORT_ALLOWED = Map.ofEntries(
+            Map.entry("CategoryDAO.getAll", SORTED_EVERY_ROW),
+            Map.entry("ProductDAO.getAll", SORTED_EVERY_ROW),
+            Map.entry("ProductDAO.getAllSummaries", SORTED_EVERY_ROW),
+            Map.entry("ProductDAO.streamAll", SORTED_EVERY_ROW),
+            Map.entry("UserDAO.getAll", SORTED_EVERY_ROW),
+            Map.entry("UserDAO.getAllSummaries", SORTED_EVERY_ROW),
+            Map.entry("UserDAO.streamAll", SORTED_EVERY_ROW),
+            Map.entry("OrderDAO.getAll", SORTED_EVERY_ROW),
+            Map.entry("OrderDAO.streamAll", SORTED_EVERY_ROW),
+            Map.entry("OrderDAO.getStatsByStatus", "sorts the status groups"),
+            Map.entry("ProductDAO.search", "relevance is computed per match, so the matches are sorted"));
+
+    private static volatile String currentStep;
+    private static final Set<String> exercised = new LinkedHashSet<>();
+    private static final Map<String, Set<String>> failures = new LinkedHashMap<>();
+    private static int explained;
+    private static int skipped;
+    private static int stepStatements;
+
+    private interface Step {
+        void run() throws SQLException;
+    }
+
+    public static void main(String[] args) throws SQLException, IOException {
+        if (args.length < 1) {
+            System.out.println("Usage: QueryPlanCheck database [orders] [schemaFile]");
+            System.exit(2);
+        }
+        String database = args[0];
+        int orders = args.length > 1 ? Integer.parseInt(args[1]) : 50_000;
+        Path schemaFile = Path.of(args.length > 2 ? args[2] : "sql/01_schema.sql");
+
+        System.out.println("=================================================");
+        System.out.println("  DAO Query Plan Check");
+        System.out.println("=================================================");
+
+        if (DatabaseConnection.getPools().size() != 1) {
+            System.out.println("Unset DB_REPLICA_HOST and DB_ORDER_SHARDS before running the check.");
+            DatabaseConnection.shutdown();
+            System.exit(2);
+        }
+        try (Connection conn = DatabaseConnection.getConnection()) {
+            if (!database.equals(conn.getCatalog())) {
+                System.out.println("DB_NAME is " + conn.getCatalog() + ", not " + database
+                        + "; pass the configured database name to confirm it may be dropped.");
+                DatabaseConnection.shutdown();
+                System.exit(2);
+            }
+        }
+
+        System.out.println("Loading " + schemaFile + " into " + database + "...");
+        loadSchema(schemaFile, database);
+        // Connections opened before the drop are replaced with fresh ones
+        DatabaseConnection.reconfigure(new PoolConfig(DatabaseConnection.getPool().getConfig()));
+
+        System.out.println("Generating " + orders + " orders and related rows...");
+        long startedAt = System.currentTimeMillis();
+        generateData(orders);
+        System.out.println("Data ready in " + (System.currentTimeMillis() - startedAt) + " ms.");
+        System.out.println();
+
+        StatementCapture.install(QueryPlanCheck::explain);
+        try {
+            checkCategories();
+            checkProducts();
+            checkUsers();
+            checkOrders();
+            checkOrderItems();
+        } finally {
+            StatementCapture.remove();
+        }
+
+        for (Class<?> dao : List.of(CategoryDAO.class, ProductDAO.class, UserDAO.class, OrderDAO.class,
+                OrderItemDAO.class)) {
+            for (Method method : dao.getMethods()) {
+                String step = dao.getSimpleName() + "." + method.getName();
+                if (!exercised.contains(step)) {
+                    failures.computeIfAbsent(step, s -> new LinkedHashSet<>()).add("not exercised by this check");
+                }
+            }
+        }
+
+        System.out.println("--- Report ---");
+        System.out.println("  " + exercised.size() + " DAO methods called, " + explained
+                + " statements explained, " + skipped + " inserts skipped");
+        for (Map.Entry<String, Set<String>> failure : failures.entrySet()) {
+            for (String finding : failure.getValue()) {
+                System.out.println("  FAIL " + failure.getKey() + ": " + finding);
+            }
+        }
+        System.out.println(failures.isEmpty() ? "  All plans use indexes." : "  " + failures.size()
+                + " DAO method(s) failed.");
+
+        DatabaseConnection.shutdown();
+        if (!failures.isEmpty()) {
+            System.exit(1);
+        }
+    }
+
+    /**
+     * Run the schema script statement by statement, with ecommerce_db
+     * replaced by the target database
+     */
+    private static void loadSchema(Path schemaFile, String database) throws IOException, SQLException {
+        String script = Files.readAllLines(schemaFile).stream()
+                .filter(line -> !line.stripLeading().startsWith("--"))
+                .collect(Collectors.joining("\n"))
+                .replace("ecommerce_db", database);
+
+        try (Connection conn = DatabaseConnection.getConnection();
+                Statement stmt = conn.createStatement()) {
+            for (String sql : script.split(";")) {
+                if (!sql.isBlank()) {
+                    stmt.execute(sql);
+                }
+            }
+        }
+    }
+
+    /**
+     * Fill the fresh schema with generated rows; ids start at 1, so rows refer
+     * to each other by arithmetic on the sequence number
+     */
+    private static void generateData(int orders) throws SQLException {
+        int categories = Math.max(50, orders / 500);
+        int products = Math.max(1_000, orders / 2);
+        int users = Math.max(1_000, orders / 5);
+        int items = orders * 2;
+
+        try (Connection conn = DatabaseConnection.getConnection()) {
+            try (Statement stmt = conn.createStatement()) {
+                stmt.execute("SET SESSION cte_max_recursion_depth = " + Math.max(items, 1_000));
+            }
+            insert(conn, categories, "INSERT INTO categories (name, description) " + SEQUENCE
+                    + "SELECT CONCAT('Category ', n), CONCAT('Generated category ', n) FROM seq");
+            insert(conn, users, "INSERT INTO users (email, username, password_hash, first_name, last_name, role, "
+                    + "is_active) " + SEQUENCE
+                    + "SELECT CONCAT('user', n, '@example.com'), CONCAT('user', n), 'not-a-real-hash', "
+                    + "CONCAT('First', n % 97), CONCAT('Last', LPAD(n % 3000, 4, '0')), "
+                    + "IF(n % 100 = 0, 'ADMIN', 'CUSTOMER'), n % 25 <> 0 FROM seq");
+            insert(conn, products, "INSERT INTO products (category_id, name, description, price, stock, sku, "
+                    + "is_active) " + SEQUENCE
+                    + "SELECT 1 + n % " + categories + ", "
+                    + "CONCAT(ELT(1 + n % 6, 'Wireless', 'Organic', 'Steel', 'Classic', 'Compact', 'Deluxe'), ' ', "
+                    + "ELT(1 + n DIV 6 % 5, 'Lamp', 'Chair', 'Kettle', 'Speaker', 'Backpack'), ' ', n), "
+                    + "CONCAT('Generated product number ', n), 0.99 + n % 500, 100 + n % 50, "
+                    + "CONCAT('QPC-', n), n % 10 <> 0 FROM seq");
+            insert(conn, orders, "INSERT INTO orders (user_id, order_number, status, total_amount, order_date) "
+                    + SEQUENCE
+                    + "SELECT 1 + n % " + users + ", CONCAT('QPC-ORD-', n), "
+                    + "ELT(1 + n % 5, 'PENDING', 'PAID', 'SHIPPED', 'DELIVERED', 'CANCELLED'), 10 + n % 900, "
+                    + "TIMESTAMP '2024-01-01 00:00:00' + INTERVAL n * 7 MINUTE FROM seq");
+            insert(conn, items, "INSERT INTO order_items (order_id, product_id, quantity, unit_price) " + SEQUENCE
+                    + "SELECT 1 + (n - 1) DIV 2, 1 + n * 7 % " + products + ", 1 + n % 3, 5 + n % 100 FROM seq");
+            try (Statement stmt = conn.createStatement()) {
+                stmt.execute("ANALYZE TABLE categories, users, products, orders, order_items");
+            }
+        }
+    }
+
+    private static void insert(Connection conn, int rows, String sql) throws SQLException {
+        try (PreparedStatement stmt = conn.prepareStatement(sql)) {
+            stmt.setInt(1, rows);
+            stmt.executeUpdate();
+        }
+    }
+
+    /**
+     * StatementCapture listener: EXPLAIN the statement on its own connection
+     * and record the plan rows that scan or sort a whole table
+     */
+    private static void explain(Connection connection, String sql, List<Object> parameters) {
+        String step = currentStep;
+        stepStatements++;
+        String verb = sql.stripLeading().split("\\s", 2)[0].toUpperCase(Locale.ROOT);
+        if (verb.equals("INSERT") || verb.equals("REPLACE")) {
+            skipped++;
+            return;
+        }
+
+        try (PreparedStatement stmt = connection.prepareStatement("EXPLAIN FORMAT=TRADITIONAL " + sql)) {
+            for (int i = 0; i < parameters.size(); i++) {
+                stmt.setObject(i + 1, parameters.get(i));
+            }
+            try (ResultSet rs = stmt.executeQuery()) {
+                explained++;
+                while (rs.next()) {
+                    String table = rs.getString("table");
+                    String type = rs.getString("type");
+                    String extra = rs.getString("Extra");
+                    if ("ALL".equals(type) && !FULL_SCAN_ALLOWED.containsKey(step)) {
+                        fail(step, "full scan of " + table + " in: " + sql);
+                    }
+                    if (extra != null && extra.contains("Using filesort") && !FILESORT_ALLOWED.containsKey(step)) {
+                        fail(step, "filesort on " + table + " in: " + sql);
+                    }
+                }
+            }
+        } catch (SQLException e) {
+            fail(step, "could not explain (" + e.getMessage() + "): " + sql);
+        }
+    }
+
+    private static void fail(String step, String finding) {
+        failures.computeIfAbsent(step, s -> new LinkedHashSet<>()).add(finding);
+    }
+
+    /**
+     * Call one DAO method with the listener attributing its statements to it
+     *
+     * @param step Interface and method name, e.g. "OrderDAO.getByUserId"
+     */
+    private static void check(String step, Step call) {
+        currentStep = step;
+        stepStatements = 0;
+        exercised.add(step);
+        try {
+            call.run();
+            if (stepStatements == 0) {
+                fail(step, "ran no statements");
+            }
+        } catch (SQLException | RuntimeException e) {
+            fail(step, "call failed: " + e.getMessage());
+        } finally {
+            currentStep = null;
+        }
+    }
+
+    private static List<Integer> ids(int count) {
+        return IntStream.rangeClosed(1, count).boxed().collect(Collectors.toList());
+    }
+
+    private static void checkCategories() {
+        CategoryDAO categoryDAO = new CategoryDAOImpl();
+        Category category = new Category();
+        category.setName("Plan check category");
+        category.setDescription("Created by QueryPlanCheck");
+
+        check("CategoryDAO.create", () -> categoryDAO.create(category));
+        check("CategoryDAO.getById", () -> categoryDAO.getById(1));
+        check("CategoryDAO.getAll", categoryDAO::getAll);
+        check("CategoryDAO.page", () -> {
+            Page<Category> first = categoryDAO.page(null, PAGE_SIZE);
+            categoryDAO.page(first.getNextCursor(), PAGE_SIZE);
+        });
+        check("CategoryDAO.update", () -> {
+            category.setDescription("Updated by QueryPlanCheck");
+            categoryDAO.update(category);
+        });
+        check("CategoryDAO.delete", () -> categoryDAO.delete(category.getCategoryId()));
+    }
+
+    private static Product newProduct(String sku) {
+        Product product = new Product();
+        product.setCategoryId(1);
+        product.setName("Plan check product " + sku);
+        product.setDescription("Created by QueryPlanCheck");
+        product.setPrice(new BigDecimal("19.99"));
+        product.setStock(10);
+        product.setSku(sku);
+        product.setIsActive(true);
+        return product;
+    }
+
+    private static void checkProducts() {
+        ProductDAO productDAO = new ProductDAOImpl();
+        Product product = newProduct("QPC-NEW-1");
+
+        check("ProductDAO.create", () -> productDAO.create(product));
+        check("ProductDAO.createAll", () -> productDAO.createAll(
+                List.of(newProduct("QPC-NEW-2"), newProduct("QPC-NEW-3"))));
+        check("ProductDAO.upsertBySku", () -> productDAO.upsertBySku(
+                List.of(newProduct("QPC-5"), newProduct("QPC-NEW-4"))));
+        check("ProductDAO.getById", () -> productDAO.getById(2));
+        check("ProductDAO.getByIds", () -> productDAO.getByIds(ids(50)));
+        check("ProductDAO.getAll", productDAO::getAll);
+        check("ProductDAO.page", () -> {
+            Page<Product> first = productDAO.page(null, PAGE_SIZE);
+            productDAO.page(first.getNextCursor(), PAGE_SIZE);
+        });
+        check("ProductDAO.getAllSummaries", productDAO::getAllSummaries);
+        check("ProductDAO.pageSummaries", () -> {
+            Page<ProductSummary> first = productDAO.pageSummaries(null, PAGE_SIZE);
+            productDAO.pageSummaries(first.getNextCursor(), PAGE_SIZE);
+        });
+        check("ProductDAO.streamAll", () -> {
+            try (Stream<Product> rows = productDAO.streamAll()) {
+                rows.limit(STREAM_ROWS).count();
+            }
+        });
+        check("ProductDAO.update", () -> {
+            product.setDescription("Updated by QueryPlanCheck");
+            productDAO.update(product);
+        });
+        check("ProductDAO.patch", () -> {
+            Product changes = new Product();
+            changes.setPrice(new BigDecimal("24.99"));
+            productDAO.patch(product.getProductId(), changes);
+        });
+        check("ProductDAO.delete", () -> productDAO.delete(product.getProductId()));
+        check("ProductDAO.decrementStock", () -> productDAO.decrementStock(2, 1));
+        check("ProductDAO.getByCategory", () -> productDAO.getByCategory(1));
+        check("ProductDAO.getSummariesByCategory", () -> productDAO.getSummariesByCategory(1));
+        check("ProductDAO.search", () -> {
+            Page<ProductSummary> first = productDAO.search("wireless lamp", null, null, null, PAGE_SIZE);
+            productDAO.search("wireless lamp", null, null, first.getNextCursor(), PAGE_SIZE);
+            productDAO.search("steel kettle", 1, true, null, PAGE_SIZE);
+        });
+    }
+
+    private static User newUser(String name) {
+        User user = new User();
+        user.setEmail(name + "@example.com");
+        user.setUsername(name);
+        user.setPasswordHash("not-a-real-hash");
+        user.setFirstName("Plan");
+        user.setLastName("Check");
+        user.setRole("CUSTOMER");
+        user.setIsActive(true);
+        return user;
+    }
+
+    private static void checkUsers() {
+        UserDAO userDAO = new UserDAOImpl();
+        User user = newUser("qpc-new-1");
+
+        check("UserDAO.create", () -> userDAO.create(user));
+        check("UserDAO.createAll", () -> userDAO.createAll(List.of(newUser("qpc-new-2"), newUser("qpc-new-3"))));
+        check("UserDAO.getById", () -> userDAO.getById(3));
+        check("UserDAO.getByIds", () -> userDAO.getByIds(ids(50)));
+        check("UserDAO.getAll", userDAO::getAll);
+        check("UserDAO.page", () -> {
+            Page<User> first = userDAO.page(null, PAGE_SIZE);
+            userDAO.page(first.getNextCursor(), PAGE_SIZE);
+        });
+        check("UserDAO.getAllSummaries", userDAO::getAllSummaries);
+        check("UserDAO.pageSummaries", () -> {
+            Page<UserSummary> first = userDAO.pageSummaries(null, PAGE_SIZE);
+            userDAO.pageSummaries(first.getNextCursor(), PAGE_SIZE);
+        });
+        check("UserDAO.streamAll", () -> {
+            try (Stream<User> rows = userDAO.streamAll()) {
+                rows.limit(STREAM_ROWS).count();
+            }
+        });
+        check("UserDAO.update", () -> {
+            user.setPhone("555-0100");
+            userDAO.update(user);
+        });
+        check("UserDAO.patch", () -> {
+            User changes = new User();
+            changes.setLastName("Checked");
+            userDAO.patch(user.getUserId(), changes);
+        });
+        check("UserDAO.delete", () -> userDAO.delete(user.getUserId()));
+        check("UserDAO.getByEmail", () -> userDAO.getByEmail("user3@example.com"));
+    }
+
+    private static void checkOrders() {
+        OrderDAO orderDAO = new OrderDAOImpl();
+        Order order = new Order();
+        order.setUserId(3);
+        order.setOrderNumber("QPC-NEW-ORD-1");
+        order.setStatus("PENDING");
+        order.setTotalAmount(new BigDecimal("42.00"));
+
+        check("OrderDAO.create", () -> orderDAO.create(order));
+        check("OrderDAO.getById", () -> orderDAO.getById(1));
+        check("OrderDAO.getDetails", () -> orderDAO.getDetails(1));
+        check("OrderDAO.getByIds", () -> orderDAO.getByIds(ids(50)));
+        check("OrderDAO.getAll", orderDAO::getAll);
+        check("OrderDAO.page", () -> {
+            Page<Order> first = orderDAO.page(null, PAGE_SIZE);
+            orderDAO.page(first.getNextCursor(), PAGE_SIZE);
+        });
+        check("OrderDAO.streamAll", () -> {
+            try (Stream<Order> rows = orderDAO.streamAll()) {
+                rows.limit(STREAM_ROWS).count();
+            }
+        });
+        check("OrderDAO.update", () -> {
+            order.setNotes("Updated by QueryPlanCheck");
+            orderDAO.update(order);
+        });
+        check("OrderDAO.transitionStatus", () -> orderDAO.transitionStatus(ids(100), "PENDING", "PAID"));
+        check("OrderDAO.delete", () -> orderDAO.delete(order.getOrderId()));
+        check("OrderDAO.getByUserId", () -> orderDAO.getByUserId(3));
+        check("OrderDAO.countByUserId", () -> orderDAO.countByUserId(3));
+        check("OrderDAO.getStatsByUserId", () -> orderDAO.getStatsByUserId(3));
+        check("OrderDAO.getStatsByStatus", orderDAO::getStatsByStatus);
+    }
+
+    private static OrderItem newOrderItem(int productId) {
+        OrderItem orderItem = new OrderItem();
+        orderItem.setOrderId(1);
+        orderItem.setProductId(productId);
+        orderItem.setQuantity(1);
+        orderItem.setUnitPrice(new BigDecimal("9.99"));
+        return orderItem;
+    }
+
+    private static void checkOrderItems() {
+        OrderItemDAO orderItemDAO = new OrderItemDAOImpl();
+        List<OrderItem> created = List.of(newOrderItem(3), newOrderItem(4));
+
+        check("OrderItemDAO.create", () -> orderItemDAO.create(newOrderItem(2)));
+        check("OrderItemDAO.createAll", () -> orderItemDAO.createAll(created));
+        check("OrderItemDAO.getById", () -> orderItemDAO.getById(1));
+        check("OrderItemDAO.getAll", orderItemDAO::getAll);
+        check("OrderItemDAO.page", () -> {
+            Page<OrderItem> first = orderItemDAO.page(null, PAGE_SIZE);
+            orderItemDAO.page(first.getNextCursor(), PAGE_SIZE);
+        });
+        check("OrderItemDAO.streamAll", () -> {
+            try (Stream<OrderItem> rows = orderItemDAO.streamAll()) {
+                rows.limit(STREAM_ROWS).count();
+            }
+        });
+        check("OrderItemDAO.update", () -> {
+            OrderItem orderItem = created.get(0);
+            orderItem.setQuantity(2);
+            orderItemDAO.update(orderItem);
+        });
+        check("OrderItemDAO.delete", () -> orderItemDAO.delete(created.get(1).getOrderItemId()));
+        check("OrderItemDAO.getByOrderId", () -> orderItemDAO.getByOrderId(1));
+    }
+}
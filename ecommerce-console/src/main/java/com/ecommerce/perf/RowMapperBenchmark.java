@@ -0,0 +1,197 @@
+package com.ecommerce.perf;
+
+import com.ecommerce.dao.BeanMapper;
+import com.ecommerce.dao.OrderDAO;
+import com.ecommerce.dao.OrderDAOImpl;
+import com.ecommerce.db.DatabaseConnection;
+import com.ecommerce.model.Order;
+
+import java.sql.Connection;
+import java.sql.ResultSet;
+import java.sql.ResultSetMetaData;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.HashMap;
+import java.util.Locale;
+import java.util.Map;
+
+/**
+ * Benchmark: reading order rows by column name, by resolved column index,
+ * and with the compiled BeanMapper.
+ *
+ * Part 1 isolates the mapping cost. The orders table is read once into a
+ * scrollable (fully buffered) result set, which is then mapped many times
+ * with each strategy, so the network is not part of the measurement:
+ * 1. By name: rs.getInt("order_id") for every column of every row (the
+ *    previous mappers)
+ * 2. By index: positions resolved once from ResultSetMetaData, then
+ *    rs.getInt(position) (the hand-written mappers)
+ * 3. Compiled: BeanMapper.Reader, whose setters are compiled lambdas over
+ *    the same by-position reads (the current mappers); it should be no
+ *    slower than by index
+ *
+ * Part 2 times OrderDAOImpl.getAll end to end.
+ *
+ * PREREQUISITES:
+ * - Database must be running with the seed data loaded; more orders make the
+ *   end-to-end numbers more meaningful
+ *
+ * USAGE:
+ * mvn exec:java -Dexec.mainClass="com.ecommerce.perf.RowMapperBenchmark"
+ * -Dexec.args="[passes] [getAllIterations]"
+ */
+public class RowMapperBenchmark {
+    private static final int WARMUP_PASSES = 2_000;
+
+    public static void main(String[] args) throws SQLException {
+        int passes = args.length > 0 ? Integer.parseInt(args[0]) : 20_000;
+        int getAllIterations = args.length > 1 ? Integer.parseInt(args[1]) : 200;
+
+        System.out.println("=================================================");
+        System.out.println("  Order Row Mapper Benchmark");
+        System.out.println("=================================================");
+
+        try (Connection conn = DatabaseConnection.getReadConnection();
+                Statement stmt = conn.createStatement(ResultSet.TYPE_SCROLL_INSENSITIVE, ResultSet.CONCUR_READ_ONLY);
+                ResultSet rs = stmt.executeQuery("SELECT * FROM orders ORDER BY order_date DESC")) {
+
+            int rows = 0;
+            while (rs.next()) {
+                rows++;
+            }
+            if (rows == 0) {
+                System.out.println("The orders table is empty; load the seed data first.");
+                return;
+            }
+            System.out.println("Rows per pass: " + rows + ", passes: " + passes);
+            System.out.println();
+
+            for (int i = 0; i < WARMUP_PASSES; i++) {
+                mapByName(rs);
+                mapByIndex(rs);
+                mapCompiled(rs);
+            }
+
+            long byName = time(() -> mapByName(rs), passes);
+            long byIndex = time(() -> mapByIndex(rs), passes);
+            long compiled = time(() -> mapCompiled(rs), passes);
+            long totalRows = (long) rows * passes;
+
+            System.out.println("--- Mapping only ---");
+            System.out.printf("  by name : %8.1f ns/row%n", (double) byName / totalRows);
+            System.out.printf("  by index: %8.1f ns/row%n", (double) byIndex / totalRows);
+            System.out.printf("  compiled: %8.1f ns/row%n", (double) compiled / totalRows);
+            System.out.printf("  by index vs by name : %6.1f %% faster%n", 100.0 * (byName - byIndex) / byName);
+            System.out.printf("  compiled vs by index: %6.1f %% faster%n", 100.0 * (byIndex - compiled) / byIndex);
+            System.out.println();
+        }
+
+        OrderDAO orderDAO = new OrderDAOImpl();
+        for (int i = 0; i < Math.min(getAllIterations, 50); i++) {
+            orderDAO.getAll();
+        }
+        long start = System.nanoTime();
+        int size = 0;
+        for (int i = 0; i < getAllIterations; i++) {
+            size = orderDAO.getAll().size();
+        }
+        long elapsed = System.nanoTime() - start;
+
+        System.out.println("--- OrderDAOImpl.getAll ---");
+        System.out.printf("  %d rows, avg %.2f ms per call%n", size, elapsed / 1_000_000.0 / getAllIterations);
+
+        DatabaseConnection.shutdown();
+    }
+
+    private interface Pass {
+        void run() throws SQLException;
+    }
+
+    private static long time(Pass pass, int passes) throws SQLException {
+        long start = System.nanoTime();
+        for (int i = 0; i < passes; i++) {
+            pass.run();
+        }
+        return System.nanoTime() - start;
+    }
+
+    private static long mapByName(ResultSet rs) throws SQLException {
+        long checksum = 0;
+        rs.beforeFirst();
+        while (rs.next()) {
+            Order order = new Order();
+            order.setOrderId(rs.getInt("order_id"));
+            order.setUserId(rs.getInt("user_id"));
+            order.setOrderNumber(rs.getString("order_number"));
+            order.setStatus(rs.getString("status"));
+            order.setTotalAmount(rs.getBigDecimal("total_amount"));
+            order.setShippingAddressId((Integer) rs.getObject("shipping_address_id"));
+            order.setBillingAddressId((Integer) rs.getObject("billing_address_id"));
+            order.setOrderDate(rs.getTimestamp("order_date"));
+            order.setShippedDate(rs.getTimestamp("shipped_date"));
+            order.setDeliveredDate(rs.getTimestamp("delivered_date"));
+            order.setNotes(rs.getString("notes"));
+            order.setVersion(rs.getInt("version"));
+            order.setCreatedAt(rs.getTimestamp("created_at"));
+            order.setUpdatedAt(rs.getTimestamp("updated_at"));
+            checksum += order.getOrderId();
+        }
+        return checksum;
+    }
+
+    private static long mapByIndex(ResultSet rs) throws SQLException {
+        Map<String, Integer> positions = new HashMap<>();
+        ResultSetMetaData metaData = rs.getMetaData();
+        for (int i = 1; i <= metaData.getColumnCount(); i++) {
+            positions.putIfAbsent(metaData.getColumnLabel(i).toLowerCase(Locale.ROOT), i);
+        }
+        int orderId = positions.get("order_id");
+        int userId = positions.get("user_id");
+        int orderNumber = positions.get("order_number");
+        int status = positions.get("status");
+        int totalAmount = positions.get("total_amount");
+        int shippingAddressId = positions.get("shipping_address_id");
+        int billingAddressId = positions.get("billing_address_id");
+        int orderDate = positions.get("order_date");
+        int shippedDate = positions.get("shipped_date");
+        int deliveredDate = positions.get("delivered_date");
+        int notes = positions.get("notes");
+        int version = positions.get("version");
+        int createdAt = positions.get("created_at");
+        int updatedAt = positions.get("updated_at");
+
+        long checksum = 0;
+        rs.beforeFirst();
+        while (rs.next()) {
+            Order order = new Order();
+            order.setOrderId(rs.getInt(orderId));
+            order.setUserId(rs.getInt(userId));
+            order.setOrderNumber(rs.getString(orderNumber));
+            order.setStatus(rs.getString(status));
+            order.setTotalAmount(rs.getBigDecimal(totalAmount));
+            order.setShippingAddressId((Integer) rs.getObject(shippingAddressId));
+            order.setBillingAddressId((Integer) rs.getObject(billingAddressId));
+            order.setOrderDate(rs.getTimestamp(orderDate));
+            order.setShippedDate(rs.getTimestamp(shippedDate));
+            order.setDeliveredDate(rs.getTimestamp(deliveredDate));
+            order.setNotes(rs.getString(notes));
+            order.setVersion(rs.getInt(version));
+            order.setCreatedAt(rs.getTimestamp(createdAt));
+            order.setUpdatedAt(rs.getTimestamp(updatedAt));
+            checksum += order.getOrderId();
+        }
+        return checksum;
+    }
+
+    private static long mapCompiled(ResultSet rs) throws SQLException {
+        BeanMapper.Reader<Order> reader = BeanMapper.of(Order.class).reader(rs);
+
+        long checksum = 0;
+        rs.beforeFirst();
+        while (rs.next()) {
+            Order order = reader.read(rs);
+            checksum += order.getOrderId();
+        }
+        return checksum;
+    }
+}
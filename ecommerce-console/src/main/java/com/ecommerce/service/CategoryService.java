@@ -3,6 +3,7 @@ package com.ecommerce.service;
 import com.ecommerce.dao.CategoryDAO;
 import com.ecommerce.dao.CategoryDAOImpl;
 import com.ecommerce.model.Category;
+import com.ecommerce.model.Page;
 import org.springframework.stereotype.Service;
 
 import java.sql.SQLException;
@@ -16,6 +17,9 @@ import java.util.List;
  */
 @Service
 public class CategoryService {
+    private static final int DEFAULT_PAGE_SIZE = 50;
+    private static final int MAX_PAGE_SIZE = 500;
+
     private final CategoryDAO categoryDAO;
 
     public CategoryService() {
@@ -55,6 +59,22 @@ public class CategoryService {
         return categoryDAO.getAll();
     }
 
+    /**
+     * Get one page of categories, in the same order as getAllCategories()
+     * 
+     * @param afterCursor nextCursor of the previous page, or null for the first
+     * @param limit       Page size (default 50, at most 500)
+     * @return Page of categories
+     */
+    public Page<Category> getCategoriesPage(String afterCursor, Integer limit) throws SQLException {
+        // Business logic: Keep pages bounded
+        int pageSize = limit != null ? limit : DEFAULT_PAGE_SIZE;
+        if (pageSize < 1 || pageSize > MAX_PAGE_SIZE) {
+            throw new IllegalArgumentException("Page limit must be between 1 and " + MAX_PAGE_SIZE);
+        }
+        return categoryDAO.page(afterCursor, pageSize);
+    }
+
     /**
      * Update existing category
      * 
@@ -1,12 +1,21 @@
 package com.ecommerce.service;
 
+import com.ecommerce.dao.AsyncDAO;
 import com.ecommerce.dao.OrderDAO;
 import com.ecommerce.dao.OrderDAOImpl;
+import com.ecommerce.dao.OptimisticLockException;
 import com.ecommerce.model.Order;
+import com.ecommerce.model.OrderDetails;
+import com.ecommerce.model.OrderStats;
+import com.ecommerce.model.Page;
+import com.ecommerce.model.StatusTransitionResult;
 import org.springframework.stereotype.Service;
 
 import java.sql.SQLException;
 import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
 
 /**
  * Business Layer: OrderService
@@ -16,10 +25,18 @@ import java.util.List;
  */
 @Service
 public class OrderService {
+    private static final int DEFAULT_PAGE_SIZE = 50;
+    private static final int MAX_PAGE_SIZE = 500;
+    private static final int STATUS_UPDATE_ATTEMPTS = 3;
+    private static final int MAX_BULK_STATUS_ORDERS = 10_000;
+    private static final Set<String> STATUSES = Set.of("PENDING", "PAID", "SHIPPED", "DELIVERED", "CANCELLED");
+
     private final OrderDAO orderDAO;
+    private final AsyncDAO<OrderDAO> asyncOrderDAO;
 
     public OrderService() {
         this.orderDAO = new OrderDAOImpl();
+        this.asyncOrderDAO = new AsyncDAO<>(orderDAO);
     }
 
     /**
@@ -49,6 +66,27 @@ public class OrderService {
         return orderDAO.getById(id);
     }
 
+    /**
+     * Retrieve an order with its customer and line items
+     * 
+     * @param id Order ID
+     * @return Order details or null if not found
+     */
+    public OrderDetails getOrderDetails(Integer id) throws SQLException {
+        return orderDAO.getDetails(id);
+    }
+
+    /**
+     * Retrieve an order with its customer and line items on the database
+     * executor
+     * 
+     * @param id Order ID
+     * @return Future of the order details, or of null if not found
+     */
+    public CompletableFuture<OrderDetails> getOrderDetailsAsync(Integer id) {
+        return asyncOrderDAO.call(dao -> dao.getDetails(id));
+    }
+
     /**
      * Get all orders
      * 
@@ -58,6 +96,22 @@ public class OrderService {
         return orderDAO.getAll();
     }
 
+    /**
+     * Get one page of orders, in the same order as getAllOrders()
+     * 
+     * @param afterCursor nextCursor of the previous page, or null for the first
+     * @param limit       Page size (default 50, at most 500)
+     * @return Page of orders
+     */
+    public Page<Order> getOrdersPage(String afterCursor, Integer limit) throws SQLException {
+        // Business logic: Keep pages bounded
+        int pageSize = limit != null ? limit : DEFAULT_PAGE_SIZE;
+        if (pageSize < 1 || pageSize > MAX_PAGE_SIZE) {
+            throw new IllegalArgumentException("Page limit must be between 1 and " + MAX_PAGE_SIZE);
+        }
+        return orderDAO.page(afterCursor, pageSize);
+    }
+
     /**
      * Update existing order
      * 
@@ -96,26 +150,107 @@ public class OrderService {
     /**
      * Update order status
      * 
+     * Setting a status is idempotent, so if another update wins the race
+     * the order is read again and the status re-applied, up to
+     * STATUS_UPDATE_ATTEMPTS times.
+     * 
      * @param orderId Order ID
      * @param status  New order status
      * @return true if update was successful
+     * @throws OptimisticLockException if every attempt lost a race
      */
     public boolean updateOrderStatus(Integer orderId, String status) throws SQLException {
-        Order order = orderDAO.getById(orderId);
-        if (order == null) {
-            throw new IllegalArgumentException("Order not found");
+        return updateOrderStatus(orderId, status, null);
+    }
+
+    /**
+     * Update order status if the order is still at the version the caller
+     * read
+     * 
+     * @param orderId         Order ID
+     * @param status          New order status
+     * @param expectedVersion Version the caller read, or null to retry on
+     *                        conflicts instead
+     * @return true if update was successful
+     * @throws OptimisticLockException if the order has moved past
+     *                                 expectedVersion, or every retry lost a
+     *                                 race
+     */
+    public boolean updateOrderStatus(Integer orderId, String status, Integer expectedVersion)
+            throws SQLException {
+        for (int attempt = 1;; attempt++) {
+            Order order = orderDAO.getById(orderId);
+            if (order == null) {
+                throw new IllegalArgumentException("Order not found");
+            }
+            if (expectedVersion != null) {
+                order.setVersion(expectedVersion);
+            }
+            order.setStatus(status);
+            try {
+                return orderDAO.update(order);
+            } catch (OptimisticLockException e) {
+                // Business logic: Only blind status changes are retried
+                if (expectedVersion != null || attempt >= STATUS_UPDATE_ATTEMPTS) {
+                    throw e;
+                }
+            }
         }
-        order.setStatus(status);
-        return orderDAO.update(order);
     }
 
     /**
-     * Calculate order statistics for a user
+     * Move a set of orders from one status to another, e.g. a warehouse wave
+     * from PAID to SHIPPED. Orders not in fromStatus are left as they are.
+     * 
+     * @param orderIds   Orders to move (at most 10,000)
+     * @param fromStatus Status the orders must be in
+     * @param toStatus   New order status
+     * @return One outcome per distinct order ID, in the order given
+     */
+    public List<StatusTransitionResult> transitionOrderStatus(List<Integer> orderIds, String fromStatus,
+            String toStatus) throws SQLException {
+        // Business logic: Validate the transition and keep the wave bounded
+        if (orderIds == null || orderIds.isEmpty()) {
+            throw new IllegalArgumentException("At least one order ID is required");
+        }
+        if (orderIds.size() > MAX_BULK_STATUS_ORDERS) {
+            throw new IllegalArgumentException("At most " + MAX_BULK_STATUS_ORDERS + " orders can be moved at once");
+        }
+        if (!STATUSES.contains(fromStatus) || !STATUSES.contains(toStatus)) {
+            throw new IllegalArgumentException("Status must be one of " + STATUSES);
+        }
+        if (fromStatus.equals(toStatus)) {
+            throw new IllegalArgumentException("From and to status must differ");
+        }
+        return orderDAO.transitionStatus(orderIds, fromStatus, toStatus);
+    }
+
+    /**
+     * Count a user's orders without loading them
      * 
      * @param userId User ID
      * @return Number of orders placed by the user
      */
-    public int getUserOrderCount(Integer userId) throws SQLException {
-        return orderDAO.getByUserId(userId).size();
+    public long getUserOrderCount(Integer userId) throws SQLException {
+        return orderDAO.countByUserId(userId);
+    }
+
+    /**
+     * Calculate order statistics for a user
+     * 
+     * @param userId User ID
+     * @return Order count, total spent and first and last order dates
+     */
+    public OrderStats getUserOrderStats(Integer userId) throws SQLException {
+        return orderDAO.getStatsByUserId(userId);
+    }
+
+    /**
+     * Calculate order statistics for each order status
+     * 
+     * @return Status to order count, total amount and date range
+     */
+    public Map<String, OrderStats> getOrderStatsByStatus() throws SQLException {
+        return orderDAO.getStatsByStatus();
     }
 }
@@ -3,6 +3,9 @@ package com.ecommerce.service;
 import com.ecommerce.dao.ProductDAO;
 import com.ecommerce.dao.ProductDAOImpl;
 import com.ecommerce.model.Product;
+import com.ecommerce.model.Page;
+import com.ecommerce.model.ProductSummary;
+import com.ecommerce.model.UpsertBatchResult;
 import org.springframework.stereotype.Service;
 
 import java.math.BigDecimal;
@@ -17,6 +20,10 @@ import java.util.List;
  */
 @Service
 public class ProductService {
+    private static final int DEFAULT_PAGE_SIZE = 50;
+    private static final int MAX_PAGE_SIZE = 500;
+    private static final int MAX_SEARCH_LENGTH = 200;
+
     private final ProductDAO productDAO;
 
     public ProductService() {
@@ -40,6 +47,32 @@ public class ProductService {
         return productDAO.create(product);
     }
 
+    /**
+     * Insert or update products by SKU, in committed batches
+     * 
+     * @param products Catalog rows; category, name, SKU, price and stock are
+     *                 required
+     * @return Inserted and updated counts per batch
+     */
+    public List<UpsertBatchResult> upsertProducts(List<Product> products) throws SQLException {
+        // Business logic: Validate every row before any batch is written
+        for (Product product : products) {
+            if (product.getSku() == null || product.getSku().isBlank()) {
+                throw new IllegalArgumentException("Every product needs a SKU");
+            }
+            if (product.getCategoryId() == null || product.getName() == null) {
+                throw new IllegalArgumentException("Product " + product.getSku() + " needs a category and a name");
+            }
+            if (product.getPrice() == null || product.getPrice().compareTo(BigDecimal.ZERO) < 0) {
+                throw new IllegalArgumentException("Product " + product.getSku() + " price must be non-negative");
+            }
+            if (product.getStock() == null || product.getStock() < 0) {
+                throw new IllegalArgumentException("Product " + product.getSku() + " stock cannot be negative");
+            }
+        }
+        return productDAO.upsertBySku(products);
+    }
+
     /**
      * Retrieve product by ID
      * 
@@ -51,12 +84,56 @@ public class ProductService {
     }
 
     /**
-     * Get all products in the catalog
+     * Get all products in the catalog, without descriptions
+     * 
+     * @return List of product summaries
+     */
+    public List<ProductSummary> getAllProducts() throws SQLException {
+        return productDAO.getAllSummaries();
+    }
+
+    /**
+     * Get one page of products, in the same order as getAllProducts()
      * 
-     * @return List of all products
+     * @param afterCursor nextCursor of the previous page, or null for the first
+     * @param limit       Page size (default 50, at most 500)
+     * @return Page of product summaries
      */
-    public List<Product> getAllProducts() throws SQLException {
-        return productDAO.getAll();
+    public Page<ProductSummary> getProductsPage(String afterCursor, Integer limit) throws SQLException {
+        // Business logic: Keep pages bounded
+        int pageSize = limit != null ? limit : DEFAULT_PAGE_SIZE;
+        if (pageSize < 1 || pageSize > MAX_PAGE_SIZE) {
+            throw new IllegalArgumentException("Page limit must be between 1 and " + MAX_PAGE_SIZE);
+        }
+        return productDAO.pageSummaries(afterCursor, pageSize);
+    }
+
+    /**
+     * Search product names and descriptions, best matches first
+     * 
+     * @param query       Search words
+     * @param categoryId  Only this category, or null for all
+     * @param active      Only active (true) or inactive (false) products, or
+     *                    null for both
+     * @param afterCursor nextCursor of the previous page, or null for the first
+     * @param limit       Page size (default 50, at most 500)
+     * @return Page of matching product summaries
+     */
+    public Page<ProductSummary> searchProducts(String query, Integer categoryId, Boolean active, String afterCursor,
+            Integer limit) throws SQLException {
+        // Business logic: Require search words and keep pages bounded
+        String words = query != null ? query.trim() : "";
+        if (words.isEmpty()) {
+            throw new IllegalArgumentException("Search query is required");
+        }
+        if (words.length() > MAX_SEARCH_LENGTH) {
+            throw new IllegalArgumentException("Search query must be at most " + MAX_SEARCH_LENGTH + " characters");
+        }
+        int pageSize = limit != null ? limit : DEFAULT_PAGE_SIZE;
+        if (pageSize < 1 || pageSize > MAX_PAGE_SIZE) {
+            throw new IllegalArgumentException("Page limit must be between 1 and " + MAX_PAGE_SIZE);
+        }
+        return productDAO.search(words, categoryId, active, afterCursor, pageSize);
     }
 
     /**
@@ -66,15 +143,33 @@ public class ProductService {
      * @return true if update was successful
      */
     public boolean updateProduct(Product product) throws SQLException {
-        // Business logic: Validate product exists and data is valid
-        Product existing = productDAO.getById(product.getProductId());
-        if (existing == null) {
+        // Business logic: Validate data, and the update count tells whether
+        // the product exists
+        if (product.getPrice() == null || product.getPrice().compareTo(BigDecimal.ZERO) < 0) {
+            throw new IllegalArgumentException("Product price must be non-negative");
+        }
+        if (!productDAO.update(product)) {
             throw new IllegalArgumentException("Product not found with ID: " + product.getProductId());
         }
-        if (product.getPrice().compareTo(BigDecimal.ZERO) < 0) {
+        return true;
+    }
+
+    /**
+     * Update only the supplied fields of a product
+     * 
+     * @param id      Product ID
+     * @param changes Fields to change; null fields are left as they are
+     * @return true if the product exists
+     */
+    public boolean patchProduct(Integer id, Product changes) throws SQLException {
+        // Business logic: Validate supplied fields only
+        if (changes.getPrice() != null && changes.getPrice().compareTo(BigDecimal.ZERO) < 0) {
             throw new IllegalArgumentException("Product price must be non-negative");
         }
-        return productDAO.update(product);
+        if (changes.getStock() != null && changes.getStock() < 0) {
+            throw new IllegalArgumentException("Stock quantity cannot be negative");
+        }
+        return productDAO.patch(id, changes);
     }
 
     /**
@@ -91,10 +186,10 @@ public class ProductService {
      * Get products by category
      * 
      * @param categoryId Category ID
-     * @return List of products in the specified category
+     * @return Summaries of the active products in the specified category
      */
-    public List<Product> getProductsByCategory(Integer categoryId) throws SQLException {
-        return productDAO.getByCategory(categoryId);
+    public List<ProductSummary> getProductsByCategory(Integer categoryId) throws SQLException {
+        return productDAO.getSummariesByCategory(categoryId);
     }
 
     /**
@@ -116,11 +211,37 @@ public class ProductService {
      * @return true if update was successful
      */
     public boolean updateStock(Integer productId, Integer quantity) throws SQLException {
-        Product product = productDAO.getById(productId);
-        if (product == null) {
+        if (quantity == null || quantity < 0) {
+            throw new IllegalArgumentException("Stock quantity cannot be negative");
+        }
+        Product changes = new Product();
+        changes.setStock(quantity);
+        if (!productDAO.patch(productId, changes)) {
+            throw new IllegalArgumentException("Product not found");
+        }
+        return true;
+    }
+
+    /**
+     * Take stock for a sale and log it, without reading the product first
+     * 
+     * @param productId Product ID
+     * @param quantity  Units sold
+     * @return true if the stock was decremented, false if there was not
+     *         enough stock
+     */
+    public boolean decrementStock(Integer productId, Integer quantity) throws SQLException {
+        // Business logic: Validate quantity
+        if (quantity == null || quantity <= 0) {
+            throw new IllegalArgumentException("Quantity must be positive");
+        }
+        if (productDAO.decrementStock(productId, quantity)) {
+            return true;
+        }
+        // Only the failure path pays for a lookup, to tell missing from sold out
+        if (productDAO.getById(productId) == null) {
             throw new IllegalArgumentException("Product not found");
         }
-        product.setStock(quantity);
-        return productDAO.update(product);
+        return false;
     }
 }
@@ -3,6 +3,8 @@ package com.ecommerce.service;
 import com.ecommerce.dao.UserDAO;
 import com.ecommerce.dao.UserDAOImpl;
 import com.ecommerce.model.User;
+import com.ecommerce.model.Page;
+import com.ecommerce.model.UserSummary;
 import org.springframework.stereotype.Service;
 
 import java.sql.SQLException;
@@ -16,6 +18,9 @@ import java.util.List;
  */
 @Service
 public class UserService {
+    private static final int DEFAULT_PAGE_SIZE = 50;
+    private static final int MAX_PAGE_SIZE = 500;
+
     private final UserDAO userDAO;
 
     public UserService() {
@@ -47,12 +52,28 @@ public class UserService {
     }
 
     /**
-     * Get all registered users
+     * Get all registered users, without password hashes or phone numbers
      * 
-     * @return List of all users
+     * @return List of user summaries
      */
-    public List<User> getAllUsers() throws SQLException {
-        return userDAO.getAll();
+    public List<UserSummary> getAllUsers() throws SQLException {
+        return userDAO.getAllSummaries();
+    }
+
+    /**
+     * Get one page of users, in the same order as getAllUsers()
+     * 
+     * @param afterCursor nextCursor of the previous page, or null for the first
+     * @param limit       Page size (default 50, at most 500)
+     * @return Page of user summaries
+     */
+    public Page<UserSummary> getUsersPage(String afterCursor, Integer limit) throws SQLException {
+        // Business logic: Keep pages bounded
+        int pageSize = limit != null ? limit : DEFAULT_PAGE_SIZE;
+        if (pageSize < 1 || pageSize > MAX_PAGE_SIZE) {
+            throw new IllegalArgumentException("Page limit must be between 1 and " + MAX_PAGE_SIZE);
+        }
+        return userDAO.pageSummaries(afterCursor, pageSize);
     }
 
     /**
@@ -62,12 +83,26 @@ public class UserService {
      * @return true if update was successful
      */
     public boolean updateUser(User user) throws SQLException {
-        // Business logic: Validate user exists before updating
-        User existing = userDAO.getById(user.getUserId());
-        if (existing == null) {
+        // Business logic: The update count tells whether the user exists
+        if (!userDAO.update(user)) {
             throw new IllegalArgumentException("User not found with ID: " + user.getUserId());
         }
-        return userDAO.update(user);
+        return true;
+    }
+
+    /**
+     * Update only the supplied fields of a user
+     * 
+     * @param id      User ID
+     * @param changes Fields to change; null fields are left as they are
+     * @return true if the user exists
+     */
+    public boolean patchUser(Integer id, User changes) throws SQLException {
+        // Business logic: Validate email format when it changes
+        if (changes.getEmail() != null && !changes.getEmail().contains("@")) {
+            throw new IllegalArgumentException("Invalid email format");
+        }
+        return userDAO.patch(id, changes);
     }
 
     /**
@@ -1,10 +1,13 @@
 package com.ecommerce.ui;
 
 import com.ecommerce.dao.*;
+import com.ecommerce.db.UnitOfWork;
 import com.ecommerce.model.*;
 
 import java.math.BigDecimal;
 import java.sql.SQLException;
+import java.util.ArrayList;
+import java.util.Comparator;
 import java.util.List;
 import java.util.Scanner;
 
@@ -91,7 +94,7 @@ public class ConsoleUI {
         System.out.println("ALL PRODUCTS");
         System.out.println("=".repeat(120));
 
-        List<Product> products = productDAO.getAll();
+        List<ProductSummary> products = productDAO.getAllSummaries();
 
         if (products.isEmpty()) {
             System.out.println("No products found.");
@@ -102,7 +105,7 @@ public class ConsoleUI {
                 "ID", "Name", "Price", "Stock", "SKU", "Active");
         System.out.println("-".repeat(120));
 
-        for (Product product : products) {
+        for (ProductSummary product : products) {
             System.out.printf("%-5d %-40s $%-11.2f %-8d %-15s %-10s%n",
                     product.getProductId(),
                     truncate(product.getName(), 40),
@@ -125,7 +128,7 @@ public class ConsoleUI {
 
         int categoryId = getIntInput("\nEnter category ID: ");
 
-        List<Product> products = productDAO.getByCategory(categoryId);
+        List<ProductSummary> products = productDAO.getSummariesByCategory(categoryId);
 
         if (products.isEmpty()) {
             System.out.println("No products found in this category.");
@@ -137,7 +140,7 @@ public class ConsoleUI {
                 "ID", "Name", "Price", "Stock", "SKU");
         System.out.println("-".repeat(120));
 
-        for (Product product : products) {
+        for (ProductSummary product : products) {
             System.out.printf("%-5d %-40s $%-11.2f %-8d %-15s%n",
                     product.getProductId(),
                     truncate(product.getName(), 40),
@@ -202,16 +205,9 @@ public class ConsoleUI {
 
         System.out.println("User: " + user.getFirstName() + " " + user.getLastName());
 
-        // Generate order number
-        String orderNumber = "ORD-" + System.currentTimeMillis();
-
-        Order order = new Order(userId, orderNumber, BigDecimal.ZERO, null, null);
-        order.setStatus("PENDING");
-        order = orderDAO.create(order);
-
-        System.out.println("\nOrder created: " + orderNumber);
-        System.out.println("Order ID: " + order.getOrderId());
-
+        // Collect the order lines first so no transaction stays open while
+        // waiting for input
+        List<OrderItem> orderItems = new ArrayList<>();
         BigDecimal totalAmount = BigDecimal.ZERO;
         boolean addingItems = true;
 
@@ -245,25 +241,52 @@ public class ConsoleUI {
             }
 
             BigDecimal subtotal = product.getPrice().multiply(new BigDecimal(quantity));
-
-            OrderItem orderItem = new OrderItem(order.getOrderId(), productId, quantity, product.getPrice(), subtotal);
-            orderItemDAO.create(orderItem);
-
-            // Update product stock
-            product.setStock(product.getStock() - quantity);
-            productDAO.update(product);
-
+            orderItems.add(new OrderItem(null, productId, quantity, product.getPrice(), subtotal));
             totalAmount = totalAmount.add(subtotal);
 
             System.out.println("✓ Added: " + product.getName() + " x " + quantity + " = $" + subtotal);
         }
 
-        // Update order total
-        order.setTotalAmount(totalAmount);
-        orderDAO.update(order);
+        if (orderItems.isEmpty()) {
+            System.out.println("No items added. Order cancelled.");
+            return;
+        }
+
+        // Generate order number
+        String orderNumber = "ORD-" + System.currentTimeMillis();
+        BigDecimal orderTotal = totalAmount;
+
+        // Create the order, its items and the stock changes in one transaction
+        Order order = UnitOfWork.execute(() -> {
+            Order created = orderDAO.create(new Order(userId, orderNumber, orderTotal, null, null));
+
+            // Take stock in product order so concurrent orders lock rows in
+            // the same order
+            List<OrderItem> byProduct = new ArrayList<>(orderItems);
+            byProduct.sort(Comparator.comparing(OrderItem::getProductId));
+            for (OrderItem orderItem : byProduct) {
+                if (!productDAO.decrementStock(orderItem.getProductId(), orderItem.getQuantity())) {
+                    // Only the failure path reads the product, to tell missing
+                    // from sold out
+                    Product product = productDAO.getById(orderItem.getProductId());
+                    if (product == null) {
+                        throw new IllegalStateException("Product " + orderItem.getProductId() + " not found!");
+                    }
+                    throw new IllegalStateException("Insufficient stock for product " + orderItem.getProductId()
+                            + "! Available: " + product.getStock());
+                }
+
+                orderItem.setOrderId(created.getOrderId());
+            }
+
+            // All lines in one batch
+            orderItemDAO.createAll(orderItems);
+            return created;
+        });
 
         System.out.println("\n" + "=".repeat(80));
         System.out.println("✓ Order placed successfully!");
+        System.out.println("Order ID: " + order.getOrderId());
         System.out.println("Order Number: " + orderNumber);
         System.out.println("Total Amount: $" + totalAmount);
         System.out.println("=".repeat(80));
@@ -415,7 +438,7 @@ public class ConsoleUI {
         System.out.println("ALL USERS");
         System.out.println("=".repeat(100));
 
-        List<User> users = userDAO.getAll();
+        List<UserSummary> users = userDAO.getAllSummaries();
 
         if (users.isEmpty()) {
             System.out.println("No users found.");
@@ -426,7 +449,7 @@ public class ConsoleUI {
                 "ID", "Email", "First Name", "Last Name", "Phone", "Role");
         System.out.println("-".repeat(100));
 
-        for (User user : users) {
+        for (UserSummary user : users) {
             System.out.printf("%-5d %-30s %-20s %-20s %-15s %-10s%n",
                     user.getUserId(),
                     truncate(user.getEmail(), 30),
@@ -447,24 +470,26 @@ public class ConsoleUI {
 
         int orderId = getIntInput("Enter Order ID: ");
 
-        Order order = orderDAO.getById(orderId);
-        if (order == null) {
+        OrderDetails details = orderDAO.getDetails(orderId);
+        if (details == null) {
             System.out.println("Order not found!");
             return;
         }
 
-        User user = userDAO.getById(order.getUserId());
+        Order order = details.getOrder();
+        UserSummary customer = details.getCustomer();
 
         System.out.println("\nOrder Information:");
         System.out.println("-".repeat(80));
         System.out.println("Order Number: " + order.getOrderNumber());
         System.out.println("Status: " + order.getStatus());
-        System.out
-                .println("Customer: " + user.getFirstName() + " " + user.getLastName() + " (" + user.getEmail() + ")");
+        System.out.println("Customer: " + (customer != null
+                ? customer.getFirstName() + " " + customer.getLastName() + " (" + customer.getEmail() + ")"
+                : "User " + order.getUserId()));
         System.out.println("Order Date: " + order.getOrderDate());
         System.out.println("Total Amount: $" + order.getTotalAmount());
 
-        List<OrderItem> orderItems = orderItemDAO.getByOrderId(orderId);
+        List<OrderLine> orderItems = details.getItems();
 
         if (!orderItems.isEmpty()) {
             System.out.println("\nOrder Items:");
@@ -473,11 +498,10 @@ public class ConsoleUI {
                     "ID", "Product", "Quantity", "Unit Price", "Subtotal");
             System.out.println("-".repeat(80));
 
-            for (OrderItem item : orderItems) {
-                Product product = productDAO.getById(item.getProductId());
+            for (OrderLine item : orderItems) {
                 System.out.printf("%-5d %-40s %-10d $%-11.2f $%-11.2f%n",
                         item.getOrderItemId(),
-                        truncate(product.getName(), 40),
+                        truncate(item.getProductName() != null ? item.getProductName() : "(deleted product)", 40),
                         item.getQuantity(),
                         item.getUnitPrice(),
                         item.getSubtotal());
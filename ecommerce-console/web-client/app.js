@@ -218,7 +218,7 @@ async function getAllProducts() {
         const columns = [
             { key: 'productId', label: 'ID' },
             { key: 'name', label: 'Name' },
-            { key: 'description', label: 'Description' },
+            { key: 'sku', label: 'SKU' },
             { key: 'price', label: 'Price' },
             { key: 'stock', label: 'Stock' },
             { key: 'categoryId', label: 'Category ID' }
@@ -255,7 +255,7 @@ async function getProductsByCategory() {
         const columns = [
             { key: 'productId', label: 'ID' },
             { key: 'name', label: 'Name' },
-            { key: 'description', label: 'Description' },
+            { key: 'sku', label: 'SKU' },
             { key: 'price', label: 'Price' },
             { key: 'stock', label: 'Stock' }
         ];
@@ -263,6 +263,47 @@ async function getProductsByCategory() {
     }
 }
 
+let productSearchCursor = null;
+
+async function searchProducts(nextPage = false) {
+    const query = document.getElementById('productSearchQuery').value.trim();
+    if (!query) {
+        alert('Please enter search words');
+        return;
+    }
+
+    const params = new URLSearchParams({ q: query, limit: 25 });
+    const categoryId = parseOptionalInteger(document.getElementById('productSearchCategoryId').value);
+    if (categoryId !== null) {
+        params.set('categoryId', categoryId);
+    }
+    const active = document.getElementById('productSearchActive').value;
+    if (active) {
+        params.set('active', active);
+    }
+    if (nextPage && productSearchCursor) {
+        params.set('after', productSearchCursor);
+    }
+
+    const data = await makeApiCall(`${API_BASE_URL}/api/products/search?${params}`, 'productsResult');
+    if (data) {
+        const columns = [
+            { key: 'productId', label: 'ID' },
+            { key: 'name', label: 'Name' },
+            { key: 'sku', label: 'SKU' },
+            { key: 'price', label: 'Price' },
+            { key: 'stock', label: 'Stock' },
+            { key: 'categoryId', label: 'Category ID' }
+        ];
+        displayTable(data.items, columns, 'productsResult');
+        productSearchCursor = data.nextCursor;
+        if (productSearchCursor) {
+            document.getElementById('productsResult').insertAdjacentHTML('beforeend',
+                '<button onclick="searchProducts(true)" class="btn-secondary">Next Page</button>');
+        }
+    }
+}
+
 async function checkProductStock() {
     const id = document.getElementById('productIdForStock').value;
     if (!id) {
@@ -553,7 +594,7 @@ async function getAllUsers() {
             { key: 'email', label: 'Email' },
             { key: 'firstName', label: 'First Name' },
             { key: 'lastName', label: 'Last Name' },
-            { key: 'createdAt', label: 'Created At' }
+            { key: 'role', label: 'Role' }
         ];
         displayTable(data, columns, 'usersResult');
     }